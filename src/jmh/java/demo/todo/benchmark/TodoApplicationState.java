@@ -0,0 +1,60 @@
+package demo.todo.benchmark;
+
+import demo.todo.ServiceTodoApplication;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the service once per fork against the embedded HSQLDB of the test profile,
+ * seeded with {@link #TODO_COUNT} items, once with each todo repository implementation.
+ * The Spring request path needs over a minute before the JIT settles, which is why the benchmarks
+ * using this state warm up for 100 seconds per fork.
+ */
+@State(Scope.Benchmark)
+public class TodoApplicationState {
+
+    static final int TODO_COUNT = 1000;
+
+    @Param({"jpa", "jdbc"})
+    public String repository;
+
+    ConfigurableApplicationContext context;
+    MockMvc mvc;
+    long existingId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ServiceTodoApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=warn", "todo.repository=" + repository)
+                .run();
+        mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        TodoRepository todoRepository = context.getBean(TodoRepository.class);
+        todoRepository.deleteAll();
+        existingId = todoRepository.saveAll(IntStream.range(0, TODO_COUNT)
+                .mapToObj(i -> TodoItem.builder().title("Benchmark todo " + i).done(i % 2 == 0).build())
+                .collect(Collectors.toList()))
+                .get(TODO_COUNT / 2)
+                .getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
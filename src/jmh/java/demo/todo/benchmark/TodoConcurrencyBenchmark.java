@@ -0,0 +1,94 @@
+package demo.todo.benchmark;
+
+import demo.todo.ServiceTodoApplication;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second that {@link #CLIENTS} concurrent clients get out of GET /todos/{id} while every
+ * query takes {@link SlowQueries#LATENCY_MS} ms, as it would during a Postgres latency spike.
+ * The platform thread pool is capped at {@link #TOMCAT_THREADS}; the connection pool is large enough
+ * not to be the limit, so the difference between the two modes is the request threads alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 3, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(TodoConcurrencyBenchmark.CLIENTS)
+public class TodoConcurrencyBenchmark {
+
+    static final int CLIENTS = 200;
+    static final int TOMCAT_THREADS = 10;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest getTodo;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ServiceTodoApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "logging.level.root=warn",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "server.tomcat.accept-count=" + CLIENTS,
+                        "TODO_DB_POOL_SIZE=" + CLIENTS,
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SlowQueries.class.getName(),
+                        "TODO_VIRTUAL_THREADS=" + virtualThreads)
+                .run();
+
+        long id = context.getBean(TodoRepository.class)
+                .save(TodoItem.builder().title("Benchmark todo").build())
+                .getId();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        getTodo = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/todos/" + id)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getTodo() throws IOException, InterruptedException {
+        return httpClient.send(getTodo, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Holds the request thread, and the connection it has checked out, for a fixed time before each statement.
+     */
+    public static class SlowQueries implements StatementInspector {
+
+        static final long LATENCY_MS = 100;
+
+        @Override
+        public String inspect(String sql) {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sql;
+        }
+    }
+}
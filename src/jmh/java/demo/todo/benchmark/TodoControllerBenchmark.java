@@ -0,0 +1,58 @@
+package demo.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, time = 5)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class TodoControllerBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockMvc mvc;
+    private long existingId;
+
+    @Setup
+    public void setUp(TodoApplicationState application) {
+        mvc = application.mvc;
+        existingId = application.existingId;
+    }
+
+    @Benchmark
+    public MvcResult getTodo() throws Exception {
+        return mvc.perform(get("/todos/" + existingId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getTodoPage() throws Exception {
+        return mvc.perform(get("/todos").param("limit", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult updateTodo() throws Exception {
+        return mvc.perform(put("/todos/" + existingId)
+                .content("{\"title\":\"Updated benchmark todo\",\"done\":true}")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult addAndDeleteTodo() throws Exception {
+        MvcResult added = mvc.perform(post("/todos")
+                .content("{\"title\":\"Added benchmark todo\",\"done\":false}")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+        long id = objectMapper.readTree(added.getResponse().getContentAsString()).get("id").asLong();
+        return mvc.perform(delete("/todos/" + id)).andReturn();
+    }
+}
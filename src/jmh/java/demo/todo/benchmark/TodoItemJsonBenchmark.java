@@ -0,0 +1,116 @@
+package demo.todo.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import demo.todo.model.TodoItem;
+import demo.todo.model.TodoItemSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class TodoItemJsonBenchmark {
+
+    private static final int LIST_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper reflectiveObjectMapper;
+    private TodoItem todoItem;
+    private List<TodoItem> todoItems;
+    private String todoItemJson;
+    private String todoItemsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        reflectiveObjectMapper = new ObjectMapper().addMixIn(TodoItem.class, BeanSerialized.class);
+        todoItem = new TodoItem(42L, "Benchmark todo", false);
+        todoItems = LongStream.range(0, LIST_SIZE)
+                .mapToObj(id -> new TodoItem(id, "Benchmark todo " + id, id % 2 == 0))
+                .collect(Collectors.toList());
+        todoItemJson = objectMapper.writeValueAsString(todoItem);
+        todoItemsJson = objectMapper.writeValueAsString(todoItems);
+    }
+
+    @Benchmark
+    public byte[] serializeTodoItem() throws IOException {
+        return objectMapper.writeValueAsBytes(todoItem);
+    }
+
+    @Benchmark
+    public TodoItem deserializeTodoItem() throws IOException {
+        return objectMapper.readValue(todoItemJson, TodoItem.class);
+    }
+
+    @Benchmark
+    public byte[] serializeTodoItemList() throws IOException {
+        return objectMapper.writeValueAsBytes(todoItems);
+    }
+
+    @Benchmark
+    public byte[] serializeTodoItemListReflective() throws IOException {
+        return reflectiveObjectMapper.writeValueAsBytes(todoItems);
+    }
+
+    /**
+     * The streaming endpoint's inner loop: one reused item written per row, straight to the output.
+     */
+    @Benchmark
+    public void streamTodoItems(Blackhole blackhole) throws IOException {
+        TodoItem row = new TodoItem();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new BlackholeOutputStream(blackhole))) {
+            generator.writeStartArray();
+            for (TodoItem todoItem : todoItems) {
+                row.setId(todoItem.getId());
+                row.setTitle(todoItem.getTitle());
+                row.setDone(todoItem.getDone());
+                TodoItemSerializer.write(row, generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @Benchmark
+    public List<TodoItem> deserializeTodoItemList() throws IOException {
+        return objectMapper.readValue(todoItemsJson, new TypeReference<List<TodoItem>>() {});
+    }
+
+    /**
+     * Puts the reflective bean serializer back, for comparison.
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+    private static class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package demo.todo.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import demo.todo.model.TodoItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost of writing and reading a todo list per wire format, with and without gzip.
+ * The payload size of each combination is printed once per fork, so bytes saved can be set against time spent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class TodoPayloadBenchmark {
+
+    private static final TypeReference<List<TodoItem>> TODO_LIST = new TypeReference<List<TodoItem>>() {};
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    @Param({"10", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<TodoItem> todoItems;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = objectMapper(format);
+        todoItems = LongStream.range(0, listSize)
+                .mapToObj(id -> new TodoItem(id, "Benchmark todo " + id, id % 2 == 0))
+                .collect(Collectors.toList());
+        payload = write();
+        System.out.printf("%n%s/%s/%d: %d bytes%n", format, compression, listSize, payload.length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream outputStream = "gzip".equals(compression) ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(outputStream, todoItems);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<TodoItem> read() throws IOException {
+        InputStream bytes = new ByteArrayInputStream(payload);
+        try (InputStream inputStream = "gzip".equals(compression) ? new GZIPInputStream(bytes) : bytes) {
+            return objectMapper.readValue(inputStream, TODO_LIST);
+        }
+    }
+
+    private static ObjectMapper objectMapper(String format) {
+        switch (format) {
+            case "cbor":
+                return new ObjectMapper(new CBORFactory());
+            case "smile":
+                return new ObjectMapper(new SmileFactory());
+            default:
+                return new ObjectMapper();
+        }
+    }
+}
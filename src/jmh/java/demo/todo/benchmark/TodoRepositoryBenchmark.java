@@ -0,0 +1,68 @@
+package demo.todo.benchmark;
+
+import demo.todo.data.TodoStore;
+import demo.todo.model.TodoItem;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JPA and the JDBC todo repository on the statements behind one request each, every
+ * operation in its own transaction like the service runs it. Run with the GC profiler for the
+ * allocation rate per operation ({@code gc.alloc.rate.norm}):
+ * {@code mvn -P benchmark -DskipTests verify -Djmh.args="TodoRepositoryBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 20, time = 5)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class TodoRepositoryBenchmark {
+
+    private TodoStore todoStore;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private long existingId;
+
+    @Setup
+    public void setUp(TodoApplicationState application) {
+        todoStore = application.context.getBean(TodoStore.class);
+        PlatformTransactionManager transactionManager = application.context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        existingId = application.existingId;
+    }
+
+    @Benchmark
+    public Optional<TodoItem> findById() {
+        return readOnlyTransactionTemplate.execute(status ->
+                todoStore.findByTenantIdAndId(TodoItem.DEFAULT_TENANT, existingId));
+    }
+
+    @Benchmark
+    public List<TodoItem> findPage() {
+        return readOnlyTransactionTemplate.execute(status ->
+                todoStore.findByTenantIdAndIdGreaterThanOrderByIdAsc(TodoItem.DEFAULT_TENANT, 0, PageRequest.of(0, 100)));
+    }
+
+    @Benchmark
+    public Integer updateById() {
+        return transactionTemplate.execute(status ->
+                todoStore.updateById(TodoItem.DEFAULT_TENANT, existingId, "Updated benchmark todo", true));
+    }
+
+    @Benchmark
+    public Integer saveAndRemove() {
+        return transactionTemplate.execute(status -> {
+            TodoItem todoItem = todoStore.save(TodoItem.builder().title("Added benchmark todo").build());
+            return todoStore.removeById(TodoItem.DEFAULT_TENANT, todoItem.getId());
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package demo.todo.benchmark;
+
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, time = 5)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class TodoServiceBenchmark {
+
+    private TodoService todoService;
+    private long existingId;
+
+    @Setup
+    public void setUp(TodoApplicationState application) {
+        todoService = application.context.getBean(TodoService.class);
+        existingId = application.existingId;
+    }
+
+    @Benchmark
+    public Optional<TodoItem> getTodo() {
+        return todoService.getTodo(TodoItem.DEFAULT_TENANT, existingId);
+    }
+
+    @Benchmark
+    public List<TodoItem> getTodoPage() {
+        return todoService.getTodosAfter(TodoItem.DEFAULT_TENANT, 0, 100);
+    }
+
+    @Benchmark
+    public Optional<TodoItem> updateTodo() {
+        return todoService.updateTodo(TodoItem.DEFAULT_TENANT, existingId, new TodoItem(existingId, "Updated benchmark todo", true));
+    }
+
+    @Benchmark
+    public Boolean addAndDeleteTodo() {
+        TodoItem todoItem = todoService.addTodo(TodoItem.DEFAULT_TENANT, TodoItem.builder().title("Added benchmark todo").build());
+        return todoService.deleteTodo(TodoItem.DEFAULT_TENANT, todoItem.getId());
+    }
+}
@@ -0,0 +1,193 @@
+package demo.todo.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load against a running service: every client sends its next request as soon as the previous
+ * one is answered, picking one of the five todo endpoints by weight. Clients only read, update and delete
+ * the todo items they added themselves, so every request is expected to succeed.
+ */
+public class TodoLoadDriver {
+
+    /**
+     * The endpoints under load with their share of the mix, in percent.
+     */
+    public enum Endpoint {
+        LIST(20), GET(40), ADD(15), UPDATE(15), DELETE(10);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int SEED_ITEMS_PER_CLIENT = 10;
+    /**
+     * Every client sends its own API key, so each gets its own token bucket like separate callers would.
+     */
+    private static final ThreadLocal<String> API_KEY = new ThreadLocal<>();
+
+    private URI baseUri;
+    private HttpClient httpClient;
+    private Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private volatile boolean recording;
+
+    public TodoLoadDriver(URI baseUri) {
+        this.baseUri = baseUri;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs {@code clients} virtual-thread clients for the warmup, discarding what they measure,
+     * then for the measured duration, and returns the results of the latter.
+     */
+    public TodoLoadResult run(int clients, Duration warmup, Duration duration) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < clients; i++) {
+            String apiKey = "load-client-" + i;
+            executor.execute(() -> runClient(apiKey, running));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        latencies.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+
+        running.set(false);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        return new TodoLoadResult(latencies, errors, Duration.ofNanos(elapsed));
+    }
+
+    private void runClient(String apiKey, AtomicBoolean running) {
+        API_KEY.set(apiKey);
+        Deque<Long> ids = new ArrayDeque<>();
+        for (int i = 0; i < SEED_ITEMS_PER_CLIENT; i++) {
+            add(ids);
+        }
+        while (running.get()) {
+            Endpoint endpoint = ids.isEmpty() ? Endpoint.ADD : pick();
+            switch (endpoint) {
+                case LIST:
+                    long after = Math.max(0, ids.peekFirst() - 1);
+                    send(endpoint, get("/todos?after=" + after + "&limit=50"));
+                    break;
+                case GET:
+                    send(endpoint, get("/todos/" + randomId(ids)));
+                    break;
+                case ADD:
+                    add(ids);
+                    break;
+                case UPDATE:
+                    send(endpoint, request("/todos/" + randomId(ids))
+                            .PUT(json("{\"title\":\"load test todo (updated)\",\"done\":true}")).build());
+                    break;
+                case DELETE:
+                    if (send(endpoint, request("/todos/" + ids.peekLast()).DELETE().build()) != null) {
+                        ids.pollLast();
+                    }
+                    break;
+            }
+        }
+    }
+
+    private void add(Deque<Long> ids) {
+        String body = send(Endpoint.ADD, request("/todos")
+                .POST(json("{\"title\":\"load test todo\",\"done\":false}")).build());
+        if (body != null) {
+            Matcher id = ID.matcher(body);
+            if (id.find()) {
+                ids.addLast(Long.parseLong(id.group(1)));
+            }
+        }
+    }
+
+    /**
+     * Sends the request and records its latency; returns the body, or null when the request failed.
+     */
+    private String send(Endpoint endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // counted as an error below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean succeeded = response != null && response.statusCode() / 100 == 2;
+        if (recording) {
+            latencies.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            if (!succeeded) {
+                errors.get(endpoint).increment();
+            }
+        }
+        return succeeded ? response.body() : null;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-Api-Key", API_KEY.get());
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static long randomId(Deque<Long> ids) {
+        int index = ThreadLocalRandom.current().nextInt(ids.size());
+        return ids.stream().skip(index).findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    private static Endpoint pick() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.GET;
+    }
+}
@@ -0,0 +1,58 @@
+package demo.todo.load;
+
+import demo.todo.load.TodoLoadDriver.Endpoint;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * Latency histograms, in microseconds, and error counts per endpoint over one measured load run.
+ */
+public class TodoLoadResult {
+
+    private Map<Endpoint, Histogram> latencies;
+    private Map<Endpoint, LongAdder> errors;
+    private Duration duration;
+    private Histogram total;
+
+    TodoLoadResult(Map<Endpoint, Histogram> latencies, Map<Endpoint, LongAdder> errors, Duration duration) {
+        this.latencies = latencies;
+        this.errors = errors;
+        this.duration = duration;
+        this.total = new Histogram(3);
+        latencies.values().forEach(total::add);
+    }
+
+    public double throughput() {
+        return total.getTotalCount() / (duration.toNanos() / 1e9);
+    }
+
+    public double p99Millis() {
+        return total.getValueAtPercentile(99) / 1000.0;
+    }
+
+    public double errorRate() {
+        long errorCount = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        return total.getTotalCount() == 0 ? 1 : (double) errorCount / total.getTotalCount();
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder(format("%-8s %9s %9s %9s %9s %7s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "errors"));
+        latencies.forEach((endpoint, histogram) -> report.append(row(endpoint.name(), histogram,
+                errors.get(endpoint).sum())));
+        report.append(row("TOTAL", total, errors.values().stream().mapToLong(LongAdder::sum).sum()));
+        return report.toString();
+    }
+
+    private String row(String name, Histogram histogram, long errorCount) {
+        return format("%-8s %9d %9.1f %9.2f %9.2f %7d%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / (duration.toNanos() / 1e9),
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                errorCount);
+    }
+}
@@ -0,0 +1,69 @@
+package demo.todo.load;
+
+import demo.todo.ServiceTodoApplication;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the service and puts it under a mixed read/write load, failing when the run misses its SLOs.
+ * Only runs in the load-test profile: {@code mvn -P load-test verify}. The load.* properties size the run
+ * and set the SLOs; {@code -Dload.profile=default} runs against the Postgres of docker-compose.yml
+ * instead of the embedded HSQLDB of the test profile.
+ */
+public class TodoLoadTest {
+
+    private static final String PROFILE = System.getProperty("load.profile", "test");
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final Duration WARMUP = duration("load.warmup", "30s");
+    private static final Duration DURATION = duration("load.duration", "60s");
+    private static final double SLO_P99_MILLIS = Double.parseDouble(System.getProperty("load.slo.p99-ms", "250"));
+    private static final double SLO_MIN_THROUGHPUT = Double.parseDouble(System.getProperty("load.slo.min-throughput", "100"));
+    private static final double SLO_MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.slo.max-error-rate", "0.001"));
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeClass
+    public static void start() {
+        context = new SpringApplicationBuilder(ServiceTodoApplication.class)
+                .profiles(PROFILE)
+                .properties("server.port=0", "logging.level.root=warn")
+                // the test profile turns the limiters off; the run must hold its SLOs with them on, as deployed
+                .run("--todo.limiter.rate.enabled=true", "--todo.limiter.concurrency.enabled=true");
+    }
+
+    @AfterClass
+    public static void stop() {
+        context.close();
+    }
+
+    @Test
+    public void givenMixedLoadWhenRunThenWithinSlo() throws Exception {
+
+        // given
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        TodoLoadDriver driver = new TodoLoadDriver(URI.create("http://localhost:" + port));
+
+        // when
+        TodoLoadResult result = driver.run(CLIENTS, WARMUP, DURATION);
+
+        // then
+        System.out.printf("%n%d clients for %s on the %s profile%n%s", CLIENTS, DURATION, PROFILE, result.report());
+        assertThat(result.errorRate()).as("error rate").isLessThanOrEqualTo(SLO_MAX_ERROR_RATE);
+        assertThat(result.p99Millis()).as("p99 latency in ms").isLessThanOrEqualTo(SLO_P99_MILLIS);
+        assertThat(result.throughput()).as("requests per second").isGreaterThanOrEqualTo(SLO_MIN_THROUGHPUT);
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
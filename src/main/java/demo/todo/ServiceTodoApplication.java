@@ -3,8 +3,10 @@ package demo.todo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication(exclude = { SecurityAutoConfiguration.class })
+@EnableCaching
 public class ServiceTodoApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,34 @@
+package demo.todo.config;
+
+import demo.todo.data.TodoArchiveRepository;
+import demo.todo.data.TodoRepository;
+import demo.todo.service.TodoArchiver;
+import demo.todo.service.TodoOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.archive", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TodoArchiver todoArchiver(TodoRepository todoRepository, TodoArchiveRepository todoArchiveRepository,
+                                     TodoOutbox todoOutbox,
+                                     @Qualifier(EventConfiguration.TODO_EVENT_CHANNEL) MessageChannel todoEventChannel,
+                                     CacheManager cacheManager, PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry, ArchiveProperties properties) {
+        return new TodoArchiver(todoRepository, todoArchiveRepository, todoOutbox, todoEventChannel, cacheManager,
+                new TransactionTemplate(transactionManager), meterRegistry, properties);
+    }
+}
@@ -0,0 +1,31 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "todo.archive")
+public class ArchiveProperties {
+
+    /**
+     * Run the archiver that moves old done todo items into the archive table on this instance.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a done todo item stays untouched before it is archived.
+     */
+    private Duration after = Duration.ofDays(30);
+
+    /**
+     * Maximum number of todo items locked, copied and deleted per transaction.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Pause between two archiving runs; a run keeps going until no chunk is left.
+     */
+    private Duration interval = Duration.ofHours(1);
+}
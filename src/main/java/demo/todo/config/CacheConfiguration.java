@@ -0,0 +1,27 @@
+package demo.todo.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfiguration {
+
+    /**
+     * Defers cache puts and evictions until the surrounding transaction commits. Otherwise an eviction can
+     * run before the commit, and a concurrent read puts the old row back for as long as the entry lives.
+     */
+    @Bean
+    public static BeanPostProcessor transactionAwareCacheManager() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CaffeineCacheManager
+                        ? new TransactionAwareCacheManagerProxy((CaffeineCacheManager) bean)
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package demo.todo.config;
+
+import demo.todo.controller.DeferredFlushFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * With {@code server.compression.enabled} Tomcat gzips JSON, CBOR and Smile responses;
+ * the filter keeps small responses under {@code min-response-size} uncompressed.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "server.compression", name = "enabled", havingValue = "true")
+public class CompressionConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<DeferredFlushFilter> deferredFlushFilter() {
+        return new FilterRegistrationBean<>(new DeferredFlushFilter());
+    }
+}
@@ -0,0 +1,44 @@
+package demo.todo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(EventProperties.class)
+public class EventConfiguration {
+
+    public static final String TODO_EVENT_CHANNEL = "todoEventChannel";
+    public static final String DROPPED_METRIC = "todo.events.dropped";
+
+    private static final Logger log = LoggerFactory.getLogger(EventConfiguration.class);
+
+    /**
+     * Dispatches todo events on a single thread, so subscribers see them in publication order
+     * and publishers never wait for slow event stream clients. When the queue is full the event is
+     * dropped and counted rather than delivered out of order; the outbox still has every event.
+     */
+    @Bean(name = TODO_EVENT_CHANNEL)
+    public PublishSubscribeChannel todoEventChannel(EventProperties properties, MeterRegistry meterRegistry) {
+        Counter droppedCounter = meterRegistry.counter(DROPPED_METRIC);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            droppedCounter.increment();
+            log.warn("Todo event queue is full, dropped an event");
+        });
+        executor.setThreadNamePrefix("todo-events-");
+        executor.initialize();
+        return new PublishSubscribeChannel(executor);
+    }
+}
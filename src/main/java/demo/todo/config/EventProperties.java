@@ -0,0 +1,26 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "todo.events")
+public class EventProperties {
+
+    /**
+     * Number of recent events kept so reconnecting clients can resume from their Last-Event-ID.
+     */
+    private int historySize = 1000;
+
+    /**
+     * How long one event stream stays open before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Events waiting to be handed to subscribers; further events are dropped until there is room again.
+     */
+    private int queueCapacity = 10000;
+}
@@ -0,0 +1,27 @@
+package demo.todo.config;
+
+import demo.todo.data.JdbcTodoRepository;
+import demo.todo.data.TodoRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * With {@code todo.repository=jdbc} the service reads and writes todo items through plain JDBC
+ * instead of JPA; the JPA repository stays available for everything else.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo", name = "repository", havingValue = "jdbc")
+public class JdbcRepositoryConfiguration {
+
+    @Bean
+    @Primary
+    public JdbcTodoRepository jdbcTodoRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                                 TodoRepository todoRepository) {
+        return new JdbcTodoRepository(jdbcTemplate, todoRepository);
+    }
+}
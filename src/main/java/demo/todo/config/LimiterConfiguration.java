@@ -0,0 +1,30 @@
+package demo.todo.config;
+
+import demo.todo.controller.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Puts per-client rate limiting and adaptive concurrency limiting in front of the todo endpoints;
+ * actuator endpoints stay reachable while the service sheds load.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("${todo.limiter.rate.enabled:true} or ${todo.limiter.concurrency.enabled:true}")
+@EnableConfigurationProperties(LimiterProperties.class)
+public class LimiterConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(LimiterProperties properties,
+                                                                        MeterRegistry meterRegistry) {
+        FilterRegistrationBean<LoadSheddingFilter> registration =
+                new FilterRegistrationBean<>(new LoadSheddingFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/todos", "/todos/*", "/todos:batch");
+        return registration;
+    }
+}
@@ -0,0 +1,69 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "todo.limiter")
+public class LimiterProperties {
+
+    private Rate rate = new Rate();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Rate {
+
+        /**
+         * Give every client a token bucket and answer 429 once it is empty.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of requests a client may burst.
+         */
+        private int capacity = 100;
+
+        /**
+         * Sustained requests per second per client.
+         */
+        private double refillPerSecond = 50;
+
+        /**
+         * Buckets of clients that have been quiet this long are dropped.
+         */
+        private Duration idleExpiry = Duration.ofMinutes(10);
+
+        /**
+         * Most client buckets kept at once.
+         */
+        private long maxClients = 100000;
+    }
+
+    @Data
+    public static class Concurrency {
+
+        /**
+         * Cap the requests in flight at an adaptive limit and answer 503 above it.
+         */
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 10;
+
+        private int maxLimit = 200;
+
+        /**
+         * How many times the long-term average latency a request may take before the limit shrinks.
+         */
+        private double tolerance = 2.0;
+
+        /**
+         * Share of every new limit estimate taken over, between 0 and 1.
+         */
+        private double smoothing = 0.2;
+    }
+}
@@ -0,0 +1,41 @@
+package demo.todo.config;
+
+import demo.todo.data.OutboxRepository;
+import demo.todo.service.FileOutboxSink;
+import demo.todo.service.InMemoryOutboxSink;
+import demo.todo.service.OutboxRelay;
+import demo.todo.service.OutboxSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "todo.outbox", name = "sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(OutboxProperties properties) {
+        return new FileOutboxSink(properties.getFile());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "todo.outbox", name = "sink", havingValue = "memory", matchIfMissing = true)
+    public OutboxSink inMemoryOutboxSink(OutboxProperties properties) {
+        return new InMemoryOutboxSink(properties.getMemoryCapacity());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "todo.outbox", name = "relay-enabled", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxRepository outboxRepository, PlatformTransactionManager transactionManager,
+                                   OutboxSink outboxSink, MeterRegistry meterRegistry, OutboxProperties properties) {
+        return new OutboxRelay(outboxRepository, new TransactionTemplate(transactionManager), outboxSink,
+                meterRegistry, properties);
+    }
+}
@@ -0,0 +1,43 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "todo.outbox")
+public class OutboxProperties {
+
+    /**
+     * Run the relay that drains the outbox on this instance.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Maximum number of events locked, sent and deleted per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Pause before looking again after a batch came back less than full.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Where relayed events go: "memory" or "file".
+     */
+    private String sink = "memory";
+
+    /**
+     * Number of events kept by the memory sink.
+     */
+    private int memoryCapacity = 10000;
+
+    /**
+     * File the file sink appends to, one JSON event per line.
+     */
+    private Path file = Paths.get("outbox.ndjson");
+}
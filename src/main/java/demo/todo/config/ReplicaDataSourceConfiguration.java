@@ -0,0 +1,65 @@
+package demo.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import demo.todo.data.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with the primary pool plus one pool per configured replica.
+ * Only active when at least one replica is configured.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "todo.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReplicaProperties properties) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            HikariDataSource replicaDataSource = new HikariDataSource();
+            replicaDataSource.setPoolName("todo-replica-" + i);
+            replicaDataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+            replicaDataSource.setJdbcUrl(replica.getUrl());
+            replicaDataSource.setUsername(replica.getUsername());
+            replicaDataSource.setPassword(replica.getPassword());
+            replicaDataSource.setReadOnly(true);
+            replicaDataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replicaDataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            replicaDataSource.setInitializationFailTimeout(-1);
+            replicaDataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replicas.add(replicaDataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getHealthCheckInterval());
+    }
+
+    /**
+     * Defers fetching the physical connection until the first statement, by which time the
+     * transaction's read-only flag is known and the routing data source can pick a replica.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,37 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "todo.datasource")
+public class ReplicaProperties {
+
+    /**
+     * Read replicas that serve read-only transactions, in round-robin order.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How often every replica is checked, so failed replicas are skipped and recovered ones used again.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a read waits for a replica connection before falling back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    private int maximumPoolSize = 10;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,30 @@
+package demo.todo.config;
+
+import demo.todo.data.TodoRepository;
+import demo.todo.service.TodoPurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * With {@code todo.soft-delete.enabled} the service marks deleted items instead of removing them,
+ * and the purger removes the marked rows later in large batches.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.soft-delete", name = "enabled")
+@EnableConfigurationProperties(SoftDeleteProperties.class)
+public class SoftDeleteConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TodoPurger todoPurger(TodoRepository todoRepository, PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry, SoftDeleteProperties properties) {
+        return new TodoPurger(todoRepository, new TransactionTemplate(transactionManager), meterRegistry,
+                properties);
+    }
+}
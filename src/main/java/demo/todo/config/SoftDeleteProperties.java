@@ -0,0 +1,36 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "todo.soft-delete")
+public class SoftDeleteProperties {
+
+    /**
+     * Mark deleted todo items instead of deleting the rows, and purge the marked rows in the background.
+     */
+    private boolean enabled = false;
+
+    /**
+     * When the purge runs, as a cron expression in the server's time zone; pick a low-traffic window.
+     */
+    private String purgeCron = "0 0 3 * * *";
+
+    /**
+     * How long a soft-deleted row is kept before the purge removes it.
+     */
+    private Duration purgeAfter = Duration.ofHours(1);
+
+    /**
+     * Maximum number of rows removed per transaction.
+     */
+    private int batchSize = 10000;
+
+    /**
+     * Pause between two batches, leaving room for requests and for vacuum to keep up.
+     */
+    private Duration batchPause = Duration.ofMillis(100);
+}
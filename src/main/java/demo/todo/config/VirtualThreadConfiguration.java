@@ -0,0 +1,34 @@
+package demo.todo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * With {@code todo.virtual-threads.enabled} Tomcat handles every request on its own virtual thread,
+ * and so do the streaming responses Spring MVC completes asynchronously. The blocking JDBC calls
+ * made on those threads release their carrier while they wait for Postgres, so a latency spike
+ * queues requests on the connection pool instead of exhausting {@code server.tomcat.threads.max}.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.virtual-threads", name = "enabled")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
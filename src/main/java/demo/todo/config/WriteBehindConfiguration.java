@@ -0,0 +1,33 @@
+package demo.todo.config;
+
+import demo.todo.data.TodoRepository;
+import demo.todo.service.TodoOutbox;
+import demo.todo.service.TodoWriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "todo.write-behind", name = "enabled")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfiguration {
+
+    /**
+     * Started with the context and flushed completely before the data source closes on shutdown.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TodoWriteBehindBuffer todoWriteBehindBuffer(TodoRepository todoRepository, TodoOutbox todoOutbox,
+                                                       PlatformTransactionManager transactionManager,
+                                                       CacheManager cacheManager, MeterRegistry meterRegistry,
+                                                       WriteBehindProperties properties) {
+        return new TodoWriteBehindBuffer(todoRepository, todoOutbox, new TransactionTemplate(transactionManager),
+                cacheManager, meterRegistry, properties);
+    }
+}
@@ -0,0 +1,51 @@
+package demo.todo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "todo.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Accept added todo items into an in-memory queue and insert them in batches.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of todo items waiting to be inserted.
+     */
+    private int capacity = 10000;
+
+    /**
+     * Number of todo items that triggers a flush before the flush interval has passed.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest time an accepted todo item waits before it is inserted.
+     */
+    private Duration flushInterval = Duration.ofMillis(20);
+
+    /**
+     * How long an add waits for room in a full queue before it is rejected.
+     */
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    /**
+     * How often a batch that failed to insert is retried before its items are dropped.
+     */
+    private int retryAttempts = 5;
+
+    /**
+     * Wait before the first retry of a failed batch; doubled for every further retry.
+     */
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    /**
+     * How long shutdown waits for the queue to be flushed.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,73 @@
+package demo.todo.controller;
+
+/**
+ * Caps the number of requests in flight at a limit that follows latency, in the style of a gradient
+ * limiter: each completed request compares its latency with the long-term average. While latency stays
+ * within {@code tolerance} times that average the limit grows by about its square root, and as soon as
+ * requests start queueing, on database connections for instance, latency rises and the limit shrinks
+ * towards what the server can serve without queueing. Requests above the limit are turned away at once.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int LONG_RTT_WINDOW = 100;
+
+    private int minLimit;
+    private int maxLimit;
+    private double tolerance;
+    private double smoothing;
+
+    private volatile double limit;
+    private int inFlight;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Admits the request when fewer than the limit are in flight; every admitted request must be released.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Ends an admitted request that took {@code rttNanos} and adjusts the limit.
+     */
+    public synchronized void release(long rttNanos) {
+        int wasInFlight = inFlight--;
+        longRtt = longRtt == 0 ? rttNanos : longRtt + (rttNanos - longRtt) / LONG_RTT_WINDOW;
+        if (wasInFlight < limit / 2) {
+            // far below the limit, latency says nothing about whether the limit is right
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + newLimit * smoothing));
+    }
+
+    /**
+     * Ends an admitted request whose duration says nothing about server latency, such as a streamed
+     * response that lasts as long as the client reads; the limit stays as it is.
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,162 @@
+package demo.todo.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import demo.todo.config.LimiterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Turns requests away before they reach the controller, and so before they wait for a database connection.
+ * A client that has used up its token bucket gets 429 with a Retry-After telling when its next token is
+ * there; when more requests are in flight than the adaptive concurrency limit allows, the request gets
+ * 503. Clients are told apart by the {@value #API_KEY_HEADER} header, or by their address without one.
+ * A request that goes async, like a streamed todo list, keeps its slot until the async request completes;
+ * the event stream takes no slot at all, since it holds no database connection while it stays open.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-Api-Key";
+    public static final String DECISION_METRIC = "todo.limiter.decisions";
+    public static final String LIMIT_METRIC = "todo.limiter.concurrency.limit";
+    public static final String IN_FLIGHT_METRIC = "todo.limiter.concurrency.in.flight";
+
+    private LimiterProperties properties;
+    private Cache<String, TokenBucket> buckets;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private Counter rateAllowedCounter;
+    private Counter rateRejectedCounter;
+    private Counter concurrencyAllowedCounter;
+    private Counter concurrencyRejectedCounter;
+
+    public LoadSheddingFilter(LimiterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getRate().getIdleExpiry())
+                .maximumSize(properties.getRate().getMaxClients())
+                .build();
+        LimiterProperties.Concurrency concurrency = properties.getConcurrency();
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getTolerance(),
+                concurrency.getSmoothing());
+
+        this.rateAllowedCounter = decisionCounter(meterRegistry, "rate", "allowed");
+        this.rateRejectedCounter = decisionCounter(meterRegistry, "rate", "rejected");
+        this.concurrencyAllowedCounter = decisionCounter(meterRegistry, "concurrency", "allowed");
+        this.concurrencyRejectedCounter = decisionCounter(meterRegistry, "concurrency", "rejected");
+        Gauge.builder(LIMIT_METRIC, concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (properties.getRate().isEnabled()) {
+            long waitNanos = buckets.get(clientKey(request), key -> newBucket())
+                    .tryConsume(System.nanoTime());
+            if (waitNanos > 0) {
+                rateRejectedCounter.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+            rateAllowedCounter.increment();
+        }
+        if (!properties.getConcurrency().isEnabled() || isEventStream(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejectedCounter.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        concurrencyAllowedCounter.increment();
+        long start = System.nanoTime();
+        boolean asyncStarted = false;
+        try {
+            filterChain.doFilter(request, response);
+            asyncStarted = request.isAsyncStarted();
+        } finally {
+            if (asyncStarted) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of an async request once, whichever way it ends, and without a latency sample.
+     */
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + TodoEventController.EVENTS_PATH);
+    }
+
+    private TokenBucket newBucket() {
+        return new TokenBucket(properties.getRate().getCapacity(), properties.getRate().getRefillPerSecond(),
+                System.nanoTime());
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null ? "key:" + apiKey : "address:" + request.getRemoteAddr();
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String limiter, String outcome) {
+        return Counter.builder(DECISION_METRIC)
+                .tag("limiter", limiter)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
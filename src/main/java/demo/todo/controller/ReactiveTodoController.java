@@ -0,0 +1,61 @@
+package demo.todo.controller;
+
+import demo.todo.model.TodoItem;
+import demo.todo.service.ReactiveTodoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The todo API on WebFlux, active in the reactive profile instead of {@link TodoController}.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveTodoController {
+
+    private ReactiveTodoService todoService;
+
+    @Autowired
+    public ReactiveTodoController(final ReactiveTodoService todoService) {
+        this.todoService = todoService;
+    }
+
+    /**
+     * Streams with backpressure when asked for application/x-ndjson; a plain JSON array otherwise.
+     */
+    @GetMapping(path = "/todos", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<TodoItem> getTodos() {
+        return todoService.getAllTodos();
+    }
+
+    @PostMapping("/todos")
+    public Mono<TodoItem> addTodo(@RequestBody TodoItem todoItem) {
+        return todoService.addTodo(todoItem);
+    }
+
+    @GetMapping(path = "/todos/{id}", produces = "application/json")
+    public Mono<ResponseEntity<TodoItem>> getTodo(@PathVariable long id) {
+        return todoService.getTodo(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping(path = "/todos/{id}", produces = "application/json")
+    public Mono<ResponseEntity<TodoItem>> updateTodo(@PathVariable long id, @RequestBody TodoItem todoItem) {
+        return todoService.updateTodo(id, todoItem)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping(path = "/todos/{id}")
+    public Mono<ResponseEntity<Void>> deleteTodo(@PathVariable long id) {
+        return todoService.deleteTodo(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+}
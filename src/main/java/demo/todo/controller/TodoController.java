@@ -1,52 +1,285 @@
 package demo.todo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import demo.todo.model.TodoItem;
+import demo.todo.model.TodoItemId;
+import demo.todo.model.TodoItemSerializer;
+import demo.todo.model.TodoItemStatus;
+import demo.todo.model.TodoItemTitle;
 import demo.todo.service.TodoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @RestController
+@Profile("!reactive")
 public class TodoController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+    /**
+     * Names the tenant whose todo items a request reads or changes; without it the default tenant is used.
+     */
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    static final Set<String> FIELDS = new HashSet<>(Arrays.asList("id", "title", "done"));
+
     private TodoService todoService;
+    private ObjectMapper objectMapper;
 
-    @Autowired
     public TodoController(final TodoService todoService) {
+        this(todoService, new ObjectMapper());
+    }
+
+    @Autowired
+    public TodoController(final TodoService todoService, final ObjectMapper objectMapper) {
         this.todoService = todoService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Answers 304 when the If-None-Match header still matches the list version, without loading any item.
+     * The ETag is weak because Tomcat will not gzip a response that carries a strong one.
+     * With {@code includeArchived=true} the archived items are merged in; archiving changes the version too.
+     */
+    @GetMapping(path = "/todos", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<TodoItem>> getTodos(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                   @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId,
+                                                   WebRequest request) {
+        if (request.checkNotModified("W/" + etag(todoService.getTodosVersion(tenantId)))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT, TENANT_HEADER)
+                .body(includeArchived
+                        ? todoService.getAllTodosIncludingArchived(tenantId)
+                        : todoService.getAllTodos(tenantId));
+    }
+
+    /**
+     * Sparse fieldset on the full list: each item carries its id plus the fields named in {@code fields},
+     * and only those columns are read. Any field other than id, title or done is a bad request.
+     */
+    @GetMapping(path = "/todos", params = {"fields", "!limit", "!stream"},
+            produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<?>> getTodoFields(@RequestParam Set<String> fields,
+                                                 @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId,
+                                                 WebRequest request) {
+        if (!FIELDS.containsAll(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified("W/" + etag(todoService.getTodosVersion(tenantId)))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT, TENANT_HEADER)
+                .body(todoService.getAllTodos(tenantId, projection(fields)));
+    }
+
+    /**
+     * Keyset pagination on id: returns at most {@code limit} items with an id greater than {@code after}.
+     * A {@code Link: rel="next"} header points to the following page as long as the page came back full.
+     */
+    @GetMapping(path = "/todos", params = "limit", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<TodoItem>> getTodoPage(@RequestParam(defaultValue = "0") long after,
+                                                      @RequestParam int limit,
+                                                      @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<TodoItem> page = todoService.getTodosAfter(tenantId, after, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT, TENANT_HEADER);
+        if (page.size() == pageSize) {
+            long lastId = page.get(page.size() - 1).getId();
+            response.header(HttpHeaders.LINK, format("</todos?after=%d&limit=%d>; rel=\"next\"", lastId, pageSize));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Returns at most {@code limit} todo items, in id order, whose title contains {@code q} (ignoring case)
+     * and whose done flag equals {@code done}; either filter may be left out.
+     */
+    @GetMapping(path = "/todos/search", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public List<TodoItem> searchTodos(@RequestParam(required = false) String q,
+                                      @RequestParam(required = false) Boolean done,
+                                      @RequestParam(defaultValue = "" + MAX_PAGE_SIZE) int limit,
+                                      @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return todoService.searchTodos(tenantId, q, done, pageSize);
     }
 
-    @GetMapping("/todos")
-    public ResponseEntity<List<TodoItem>> getTodos() {
-        return ResponseEntity.ok(todoService.getAllTodos());
+    /**
+     * Writes all todo items as one JSON array while they are read from the database cursor,
+     * so the full list is never held in memory.
+     */
+    @GetMapping(path = "/todos", params = "stream=true", produces = "application/json")
+    public ResponseEntity<StreamingResponseBody> streamTodos(
+            @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.writeStartArray();
+            todoService.streamAllTodos(tenantId, todoItem -> {
+                try {
+                    TodoItemSerializer.write(todoItem, generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PostMapping("/todos")
-    public ResponseEntity<TodoItem> addTodo(@RequestBody TodoItem todoItem) {
-        return ResponseEntity.ok(todoService.addTodo(todoItem));
+    public ResponseEntity<TodoItem> addTodo(@RequestBody TodoItem todoItem,
+                                            @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        TodoItem addedTodoItem = todoService.addTodo(tenantId, todoItem);
+        return ResponseEntity.ok()
+                .eTag(etag(addedTodoItem.getVersion()))
+                .body(addedTodoItem);
     }
 
-    @GetMapping(path = "/todos/{id}", produces = "application/json")
-    public ResponseEntity<TodoItem> getTodo(@PathVariable long id) {
-        return todoService.getTodo(id)
+    @PostMapping(path = "/todos:batch", produces = "application/json")
+    public ResponseEntity<List<TodoItem>> addTodos(@RequestBody List<TodoItem> todoItems,
+                                                   @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        if (todoItems.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(todoService.addTodos(tenantId, todoItems));
+    }
+
+    @PutMapping(path = "/todos:batch", produces = "application/json")
+    public ResponseEntity<List<TodoItem>> updateTodos(@RequestBody List<TodoItem> todoItems,
+                                                      @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        if (todoItems.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return todoService.updateTodos(tenantId, todoItems)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @DeleteMapping(path = "/todos:batch")
+    public ResponseEntity deleteTodos(@RequestBody List<Long> ids,
+                                      @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        todoService.deleteTodos(tenantId, ids);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * With {@code includeArchived=true} an item the archiver moved away is still found.
+     */
+    @GetMapping(path = "/todos/{id}", produces = "application/json")
+    public ResponseEntity<TodoItem> getTodo(@PathVariable long id,
+                                            @RequestParam(defaultValue = "false") boolean includeArchived,
+                                            @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        Optional<TodoItem> found = todoService.getTodo(tenantId, id);
+        if (!found.isPresent() && includeArchived) {
+            found = todoService.getArchivedTodo(tenantId, id);
+        }
+        return found
+                .map(todoItem -> ResponseEntity.ok()
+                        .eTag(etag(todoItem.getVersion()))
+                        .body(todoItem))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping(path = "/todos/{id}", produces = "application/json")
-    public ResponseEntity<TodoItem> updateTodo(@PathVariable long id, @RequestBody TodoItem todoItem) {
-        return todoService.updateTodo(id, todoItem)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<TodoItem> updateTodo(@PathVariable long id, @RequestBody TodoItem todoItem,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        Optional<TodoItem> updated = isUnconditional(ifMatch)
+                ? todoService.updateTodo(tenantId, id, todoItem)
+                : todoService.updateTodo(tenantId, id, todoItem, parseVersion(ifMatch));
+        return updated
+                .map(updatedTodoItem -> ResponseEntity.ok()
+                        .eTag(etag(updatedTodoItem.getVersion()))
+                        .body(updatedTodoItem))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping(path = "/todos/{id}")
-    public ResponseEntity deleteTodo(@PathVariable long id) {
-        if (todoService.deleteTodo(id)) {
+    public ResponseEntity deleteTodo(@PathVariable long id,
+                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                     @RequestHeader(value = TENANT_HEADER, defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        boolean deleted = isUnconditional(ifMatch)
+                ? todoService.deleteTodo(tenantId, id)
+                : todoService.deleteTodo(tenantId, id, parseVersion(ifMatch));
+        if (deleted) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity handleConcurrentModification() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    /**
+     * The write-behind queue stayed full; the client should back off and retry.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity handleQueueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    private static String etag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    private static Class<?> projection(Set<String> fields) {
+        if (fields.contains("title")) {
+            return fields.contains("done") ? TodoItem.class : TodoItemTitle.class;
+        }
+        return fields.contains("done") ? TodoItemStatus.class : TodoItemId.class;
+    }
+
+    private static boolean isUnconditional(String ifMatch) {
+        return ifMatch == null || "*".equals(ifMatch.trim());
+    }
+
+    /**
+     * Reads the version out of a strong ETag; anything else can never match, so it fails the precondition.
+     */
+    private static long parseVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the precondition failure below
+            }
+        }
+        throw new OptimisticLockingFailureException("If-Match " + ifMatch + " is not a todo item version");
+    }
 }
@@ -0,0 +1,36 @@
+package demo.todo.controller;
+
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoEventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@Profile("!reactive")
+public class TodoEventController {
+
+    public static final String EVENTS_PATH = "/todos/events";
+
+    private TodoEventStream todoEventStream;
+
+    @Autowired
+    public TodoEventController(final TodoEventStream todoEventStream) {
+        this.todoEventStream = todoEventStream;
+    }
+
+    /**
+     * Server-Sent Events for every added, updated, deleted and archived todo item of the tenant. A reconnecting client
+     * resumes after the event id it sends as Last-Event-ID.
+     */
+    @GetMapping(path = EVENTS_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                   @RequestHeader(value = TodoController.TENANT_HEADER,
+                                           defaultValue = TodoItem.DEFAULT_TENANT) String tenantId) {
+        return todoEventStream.subscribe(tenantId, lastEventId);
+    }
+}
@@ -0,0 +1,36 @@
+package demo.todo.controller;
+
+/**
+ * Holds up to {@code capacity} tokens and gains {@code refillPerSecond} of them per second; every request
+ * takes one. A client can burst up to the capacity and is held to the refill rate after that.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private double capacity;
+    private double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Takes a token at {@code now} (in {@link System#nanoTime()} terms). Returns 0 when it got one,
+     * and otherwise how many nanoseconds remain until the next token is there.
+     */
+    public synchronized long tryConsume(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
@@ -0,0 +1,309 @@
+package demo.todo.data;
+
+import demo.todo.model.TodoItem;
+import demo.todo.model.TodoListVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.beans.PropertyDescriptor;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Todo item store on plain prepared statements and a hand-written row mapper: no persistence context,
+ * no dirty checking and no entity proxies. Ids come from the same pooled sequence generator as the
+ * JPA repository, so both can be used against the same table.
+ */
+public class JdbcTodoRepository implements TodoStore {
+
+    private static final int FETCH_SIZE = 500;
+    private static final String COLUMNS = "ID, TITLE, DONE, VERSION, TENANT_ID";
+    private static final String LIVE = "TENANT_ID = :tenantId and DELETED_AT is null";
+    private static final String SELECT = "select " + COLUMNS + " from TODO_ITEMS where " + LIVE;
+    private static final String PAGE = " limit :limit offset :offset";
+    private static final String TITLE_LIKE = "lower(TITLE) like :pattern escape '\\'";
+    private static final String INSERT = "insert into TODO_ITEMS (" + COLUMNS + ") "
+            + "values (:id, :title, :done, :version, :tenantId)";
+    private static final String UPDATE = "update TODO_ITEMS set TITLE = :title, DONE = :done, VERSION = VERSION + 1, "
+            + "UPDATED_AT = CURRENT_TIMESTAMP where " + LIVE + " and ID = :id";
+    private static final String SELECT_ARCHIVED = "select " + COLUMNS + " from TODO_ITEMS_ARCHIVE "
+            + "where TENANT_ID = :tenantId";
+    private static final String DELETE = "delete from TODO_ITEMS where " + LIVE;
+    private static final String SOFT_DELETE = "update TODO_ITEMS set DELETED_AT = CURRENT_TIMESTAMP where " + LIVE;
+
+    private static final RowMapper<TodoItem> TODO_ITEM_MAPPER = JdbcTodoRepository::mapTodoItem;
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TodoRepositoryCustom idGenerator;
+
+    public JdbcTodoRepository(NamedParameterJdbcTemplate jdbcTemplate, TodoRepositoryCustom idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public List<TodoItem> findByTenantIdOrderByIdAsc(String tenantId) {
+        return jdbcTemplate.query(SELECT + " order by ID", tenant(tenantId), TODO_ITEM_MAPPER);
+    }
+
+    /**
+     * Selects the columns named by the projection's properties and backs each proxy with its row.
+     */
+    @Override
+    public <T> List<T> findByTenantIdOrderByIdAsc(String tenantId, Class<T> projection) {
+        List<String> properties = PROJECTION_FACTORY.getProjectionInformation(projection).getInputProperties().stream()
+                .map(PropertyDescriptor::getName)
+                .collect(Collectors.toList());
+        String columns = properties.stream()
+                .map(property -> property.toUpperCase(Locale.ROOT))
+                .collect(Collectors.joining(", "));
+        return jdbcTemplate.query("select " + columns + " from TODO_ITEMS where " + LIVE + " order by ID",
+                tenant(tenantId), (resultSet, rowNum) -> {
+                    Map<String, Object> row = new HashMap<>();
+                    for (int i = 0; i < properties.size(); i++) {
+                        row.put(properties.get(i), resultSet.getObject(i + 1));
+                    }
+                    return PROJECTION_FACTORY.createProjection(projection, row);
+                });
+    }
+
+    @Override
+    public TodoListVersion findListVersion(String tenantId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*), max(ID), sum(ID), sum(VERSION) from TODO_ITEMS where " + LIVE,
+                tenant(tenantId), (resultSet, rowNum) -> new TodoListVersion(resultSet.getLong(1), resultSet.getLong(2),
+                        resultSet.getLong(3), resultSet.getLong(4)));
+    }
+
+    @Override
+    public List<TodoItem> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, long id, Pageable pageable) {
+        return jdbcTemplate.query(SELECT + " and ID > :id order by ID" + PAGE,
+                page(tenantId, pageable).addValue("id", id), TODO_ITEM_MAPPER);
+    }
+
+    @Override
+    public List<TodoItem> findByTenantIdAndDoneOrderByIdAsc(String tenantId, boolean done, Pageable pageable) {
+        return jdbcTemplate.query(SELECT + " and DONE = :done order by ID" + PAGE,
+                page(tenantId, pageable).addValue("done", done), TODO_ITEM_MAPPER);
+    }
+
+    @Override
+    public List<TodoItem> searchByTitle(String tenantId, String pattern, Pageable pageable) {
+        return jdbcTemplate.query(SELECT + " and " + TITLE_LIKE + " order by ID" + PAGE,
+                page(tenantId, pageable).addValue("pattern", pattern), TODO_ITEM_MAPPER);
+    }
+
+    @Override
+    public List<TodoItem> searchByTitleAndDone(String tenantId, String pattern, boolean done, Pageable pageable) {
+        return jdbcTemplate.query(SELECT + " and " + TITLE_LIKE + " and DONE = :done order by ID" + PAGE,
+                page(tenantId, pageable).addValue("pattern", pattern).addValue("done", done), TODO_ITEM_MAPPER);
+    }
+
+    /**
+     * Maps every row onto the same todo item instance, so walking the table allocates nothing per row
+     * beyond the title the driver reads.
+     */
+    @Override
+    public void forEachTodo(String tenantId, Consumer<TodoItem> consumer) {
+        TodoItem todoItem = new TodoItem();
+        todoItem.setTenantId(tenantId);
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "select " + COLUMNS + " from TODO_ITEMS where TENANT_ID = ? and DELETED_AT is null order by ID");
+            statement.setString(1, tenantId);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            boolean done = resultSet.getBoolean(3);
+            todoItem.setId(resultSet.getLong(1));
+            todoItem.setTitle(resultSet.getString(2));
+            todoItem.setDone(resultSet.wasNull() ? null : done);
+            todoItem.setVersion(resultSet.getLong(4));
+            consumer.accept(todoItem);
+        });
+    }
+
+    @Override
+    public List<TodoItem> findArchivedByTenantId(String tenantId) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + " order by ID", tenant(tenantId), TODO_ITEM_MAPPER);
+    }
+
+    @Override
+    public Optional<TodoItem> findArchivedByTenantIdAndId(String tenantId, long id) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + " and ID = :id", tenant(tenantId).addValue("id", id),
+                        TODO_ITEM_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Inserts items without an id under a newly allocated one, and updates the others.
+     */
+    @Override
+    public <S extends TodoItem> S save(S todoItem) {
+        if (todoItem.getId() == 0) {
+            todoItem.setId(idGenerator.nextId());
+            jdbcTemplate.update(INSERT, parameters(todoItem));
+        } else {
+            jdbcTemplate.update(UPDATE, parameters(todoItem));
+            todoItem.setVersion(todoItem.getVersion() + 1);
+        }
+        return todoItem;
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> saveAll(Iterable<S> todoItems) {
+        List<S> inserted = new ArrayList<>();
+        List<S> updated = new ArrayList<>();
+        for (S todoItem : todoItems) {
+            if (todoItem.getId() == 0) {
+                todoItem.setId(idGenerator.nextId());
+                inserted.add(todoItem);
+            } else {
+                updated.add(todoItem);
+            }
+        }
+        if (!inserted.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batchParameters(inserted));
+        }
+        if (!updated.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, batchParameters(updated));
+            updated.forEach(todoItem -> todoItem.setVersion(todoItem.getVersion() + 1));
+        }
+        List<S> saved = new ArrayList<>(inserted);
+        saved.addAll(updated);
+        return saved;
+    }
+
+    @Override
+    public Optional<TodoItem> findByTenantIdAndId(String tenantId, long id) {
+        return jdbcTemplate.query(SELECT + " and ID = :id", tenant(tenantId).addValue("id", id), TODO_ITEM_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<TodoItem> findByTenantIdAndIdIn(String tenantId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(SELECT + " and ID in (:ids)", tenant(tenantId).addValue("ids", ids),
+                TODO_ITEM_MAPPER);
+    }
+
+    @Override
+    public List<TodoItem> findForUpdateByTenantIdAndIdIn(String tenantId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(SELECT + " and ID in (:ids) for update", tenant(tenantId).addValue("ids", ids),
+                TODO_ITEM_MAPPER);
+    }
+
+    @Override
+    public boolean existsByTenantIdAndId(String tenantId, long id) {
+        return !jdbcTemplate.queryForList("select ID from TODO_ITEMS where " + LIVE + " and ID = :id",
+                tenant(tenantId).addValue("id", id), Long.class).isEmpty();
+    }
+
+    @Override
+    public int updateById(String tenantId, long id, String title, Boolean done) {
+        return jdbcTemplate.update(UPDATE, tenant(tenantId)
+                .addValue("id", id)
+                .addValue("title", title)
+                .addValue("done", done, Types.BOOLEAN));
+    }
+
+    @Override
+    public int updateByIdAndVersion(String tenantId, long id, long version, String title, Boolean done) {
+        return jdbcTemplate.update(UPDATE + " and VERSION = :version", tenant(tenantId)
+                .addValue("id", id)
+                .addValue("version", version)
+                .addValue("title", title)
+                .addValue("done", done, Types.BOOLEAN));
+    }
+
+    @Override
+    public int removeById(String tenantId, long id) {
+        return jdbcTemplate.update(DELETE + " and ID = :id", tenant(tenantId).addValue("id", id));
+    }
+
+    @Override
+    public int removeByIdAndVersion(String tenantId, long id, long version) {
+        return jdbcTemplate.update(DELETE + " and ID = :id and VERSION = :version",
+                tenant(tenantId).addValue("id", id).addValue("version", version));
+    }
+
+    @Override
+    public int deleteByIdIn(String tenantId, Collection<Long> ids) {
+        return jdbcTemplate.update(DELETE + " and ID in (:ids)", tenant(tenantId).addValue("ids", ids));
+    }
+
+    @Override
+    public int softDeleteById(String tenantId, long id) {
+        return jdbcTemplate.update(SOFT_DELETE + " and ID = :id", tenant(tenantId).addValue("id", id));
+    }
+
+    @Override
+    public int softDeleteByIdAndVersion(String tenantId, long id, long version) {
+        return jdbcTemplate.update(SOFT_DELETE + " and ID = :id and VERSION = :version",
+                tenant(tenantId).addValue("id", id).addValue("version", version));
+    }
+
+    @Override
+    public int softDeleteByIdIn(String tenantId, Collection<Long> ids) {
+        return jdbcTemplate.update(SOFT_DELETE + " and ID in (:ids)", tenant(tenantId).addValue("ids", ids));
+    }
+
+    private static TodoItem mapTodoItem(ResultSet resultSet, int rowNum) throws SQLException {
+        boolean done = resultSet.getBoolean(3);
+        return TodoItem.builder()
+                .id(resultSet.getLong(1))
+                .title(resultSet.getString(2))
+                .done(resultSet.wasNull() ? null : done)
+                .version(resultSet.getLong(4))
+                .tenantId(resultSet.getString(5))
+                .build();
+    }
+
+    private static MapSqlParameterSource tenant(String tenantId) {
+        return new MapSqlParameterSource("tenantId", tenantId);
+    }
+
+    private static MapSqlParameterSource page(String tenantId, Pageable pageable) {
+        return tenant(tenantId)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+    }
+
+    private static MapSqlParameterSource parameters(TodoItem todoItem) {
+        return new MapSqlParameterSource("id", todoItem.getId())
+                .addValue("tenantId", todoItem.getTenantId())
+                .addValue("title", todoItem.getTitle())
+                .addValue("done", todoItem.getDone(), Types.BOOLEAN)
+                .addValue("version", todoItem.getVersion());
+    }
+
+    private static SqlParameterSource[] batchParameters(List<? extends TodoItem> todoItems) {
+        return todoItems.stream()
+                .map(JdbcTodoRepository::parameters)
+                .toArray(SqlParameterSource[]::new);
+    }
+}
@@ -0,0 +1,22 @@
+package demo.todo.data;
+
+import demo.todo.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest unlocked outbox events with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so relays
+     * on other instances take the next events instead of waiting. Must be called within a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
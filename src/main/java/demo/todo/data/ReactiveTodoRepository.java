@@ -0,0 +1,98 @@
+package demo.todo.data;
+
+import demo.todo.model.TodoItem;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to TODO_ITEMS over R2DBC, used instead of {@link TodoRepository} in the reactive profile.
+ * The reactive API is not tenant aware, so it only sees the items of the default tenant.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTodoRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveTodoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Rows are fetched from the server in chunks as the subscriber requests them.
+     */
+    public Flux<TodoItem> findAll() {
+        return databaseClient.sql("SELECT ID, TITLE, DONE, VERSION FROM TODO_ITEMS "
+                        + "WHERE TENANT_ID = :tenantId AND DELETED_AT IS NULL ORDER BY ID")
+                .bind("tenantId", TodoItem.DEFAULT_TENANT)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveTodoRepository::toTodoItem)
+                .all();
+    }
+
+    public Mono<TodoItem> findById(long id) {
+        return databaseClient.sql("SELECT ID, TITLE, DONE, VERSION FROM TODO_ITEMS "
+                        + "WHERE TENANT_ID = :tenantId AND ID = :id AND DELETED_AT IS NULL")
+                .bind("tenantId", TodoItem.DEFAULT_TENANT)
+                .bind("id", id)
+                .map(ReactiveTodoRepository::toTodoItem)
+                .one();
+    }
+
+    /**
+     * Takes the id straight from TODO_ITEMS_SEQ. The sequence hands out blocks of ids for Hibernate's
+     * pooled optimizer, so the value returned by nextval is never used by the JPA side.
+     */
+    public Mono<TodoItem> insert(TodoItem todoItem) {
+        return bindNullable(databaseClient.sql("INSERT INTO TODO_ITEMS (ID, TENANT_ID, TITLE, DONE, VERSION) "
+                + "VALUES (nextval('todo_items_seq'), :tenantId, :title, :done, 0) RETURNING ID, TITLE, DONE, VERSION"), todoItem)
+                .bind("tenantId", TodoItem.DEFAULT_TENANT)
+                .map(ReactiveTodoRepository::toTodoItem)
+                .one();
+    }
+
+    public Mono<Integer> updateById(long id, TodoItem todoItem) {
+        return bindNullable(databaseClient.sql("UPDATE TODO_ITEMS SET TITLE = :title, DONE = :done, "
+                + "VERSION = VERSION + 1, UPDATED_AT = CURRENT_TIMESTAMP "
+                + "WHERE TENANT_ID = :tenantId AND ID = :id AND DELETED_AT IS NULL"),
+                todoItem)
+                .bind("tenantId", TodoItem.DEFAULT_TENANT)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> removeById(long id) {
+        return databaseClient.sql("DELETE FROM TODO_ITEMS WHERE TENANT_ID = :tenantId AND ID = :id AND DELETED_AT IS NULL")
+                .bind("tenantId", TodoItem.DEFAULT_TENANT)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, TodoItem todoItem) {
+        spec = todoItem.getTitle() == null
+                ? spec.bindNull("title", String.class)
+                : spec.bind("title", todoItem.getTitle());
+        return todoItem.getDone() == null
+                ? spec.bindNull("done", Boolean.class)
+                : spec.bind("done", todoItem.getDone());
+    }
+
+    private static TodoItem toTodoItem(Row row) {
+        return TodoItem.builder()
+                .id(row.get("ID", Long.class))
+                .title(row.get("TITLE", String.class))
+                .done(row.get("DONE", Boolean.class))
+                .version(row.get("VERSION", Long.class))
+                .build();
+    }
+}
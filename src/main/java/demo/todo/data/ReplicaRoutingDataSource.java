@@ -0,0 +1,155 @@
+package demo.todo.data;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections, round-robin, to read-only transactions and primary connections to
+ * everything else. A replica that fails to hand out a connection or fails its periodic health check
+ * is skipped until a later health check succeeds; with no healthy replica, reads go to the primary.
+ * Publishes its routing counts and the replica pool metrics once bound to the meter registry.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder {
+
+    public static final String ROUTE_METRIC = "todo.datasource.route";
+    public static final String HEALTHY_METRIC = "todo.datasource.replicas.healthy";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private DataSource primary;
+    private List<HikariDataSource> replicas;
+    private Duration healthCheckInterval;
+    private AtomicIntegerArray healthy;
+    private AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    private LongAdder primaryRoutes = new LongAdder();
+    private LongAdder replicaRoutes = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.healthCheckInterval = healthCheckInterval;
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            healthy.set(i, 1);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder(ROUTE_METRIC, primaryRoutes, LongAdder::sum)
+                .tag("target", "primary")
+                .register(meterRegistry);
+        FunctionCounter.builder(ROUTE_METRIC, replicaRoutes, LongAdder::sum)
+                .tag("target", "replica")
+                .register(meterRegistry);
+        Gauge.builder(HEALTHY_METRIC, this, ReplicaRoutingDataSource::healthyReplicas)
+                .register(meterRegistry);
+        for (HikariDataSource replica : replicas) {
+            if (replica.getMetricsTrackerFactory() == null) {
+                replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            }
+        }
+    }
+
+    public void start() {
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckInterval.toMillis(),
+                healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                int index = Math.floorMod(next.getAndIncrement(), replicas.size());
+                if (healthy.get(index) == 0) {
+                    continue;
+                }
+                try {
+                    Connection connection = replicas.get(index).getConnection();
+                    replicaRoutes.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    markUnhealthy(index, e);
+                }
+            }
+        }
+        primaryRoutes.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * The replicas have their own credentials, so connections for explicit ones always come from the primary.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryRoutes.increment();
+        return primary.getConnection(username, password);
+    }
+
+    public int healthyReplicas() {
+        int count = 0;
+        for (int i = 0; i < healthy.length(); i++) {
+            count += healthy.get(i);
+        }
+        return count;
+    }
+
+    void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    if (healthy.getAndSet(i, 1) == 0) {
+                        log.info("Replica {} is healthy again", replicas.get(i).getPoolName());
+                    }
+                    continue;
+                }
+                markUnhealthy(i, null);
+            } catch (SQLException e) {
+                markUnhealthy(i, e);
+            }
+        }
+    }
+
+    private void markUnhealthy(int index, SQLException cause) {
+        if (healthy.getAndSet(index, 0) == 1) {
+            log.warn("Replica {} is unhealthy, reads fall back to other replicas or the primary",
+                    replicas.get(index).getPoolName(), cause);
+        }
+    }
+}
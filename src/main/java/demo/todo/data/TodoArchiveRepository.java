@@ -0,0 +1,22 @@
+package demo.todo.data;
+
+import demo.todo.model.ArchivedTodoItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface TodoArchiveRepository extends JpaRepository<ArchivedTodoItem, ArchivedTodoItem.Key> {
+
+    /**
+     * Copies the given todo items into the archive with one {@code INSERT ... SELECT}, without loading them.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into TODO_ITEMS_ARCHIVE "
+            + "(TENANT_ID, ID, TITLE, DONE, VERSION, UPDATED_AT, ARCHIVED_AT) "
+            + "select TENANT_ID, ID, TITLE, DONE, VERSION, UPDATED_AT, CURRENT_TIMESTAMP "
+            + "from TODO_ITEMS where ID in (:ids)")
+    int copyFromTodoItems(@Param("ids") Collection<Long> ids);
+}
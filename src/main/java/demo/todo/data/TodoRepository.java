@@ -1,7 +1,142 @@
 package demo.todo.data;
 
 import demo.todo.model.TodoItem;
+import demo.todo.model.TodoListVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TodoRepository extends JpaRepository<TodoItem, Long> {
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TodoRepository extends JpaRepository<TodoItem, Long>, TodoRepositoryCustom, TodoStore {
+
+    // redeclared so that the methods both JpaRepository and TodoStore declare resolve to one signature
+
+    @Override
+    <S extends TodoItem> S save(S todoItem);
+
+    @Override
+    <S extends TodoItem> List<S> saveAll(Iterable<S> todoItems);
+
+    List<TodoItem> findByTenantIdOrderByIdAsc(String tenantId);
+
+    <T> List<T> findByTenantIdOrderByIdAsc(String tenantId, Class<T> projection);
+
+    List<TodoItem> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, long id, Pageable pageable);
+
+    List<TodoItem> findByTenantIdAndDoneOrderByIdAsc(String tenantId, boolean done, Pageable pageable);
+
+    Optional<TodoItem> findByTenantIdAndId(String tenantId, long id);
+
+    List<TodoItem> findByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TodoItem> findForUpdateByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+
+    boolean existsByTenantIdAndId(String tenantId, long id);
+
+    /**
+     * Matches {@code lower(TITLE)} against a LIKE pattern, which the trigram index on that expression serves.
+     */
+    @Query("select t from TodoItem t where t.tenantId = :tenantId and lower(t.title) like :pattern escape '\\' "
+            + "order by t.id")
+    List<TodoItem> searchByTitle(@Param("tenantId") String tenantId, @Param("pattern") String pattern,
+                                 Pageable pageable);
+
+    @Query("select t from TodoItem t where t.tenantId = :tenantId and lower(t.title) like :pattern escape '\\' "
+            + "and t.done = :done order by t.id")
+    List<TodoItem> searchByTitleAndDone(@Param("tenantId") String tenantId, @Param("pattern") String pattern,
+                                        @Param("done") boolean done, Pageable pageable);
+
+    @Query("select new demo.todo.model.TodoListVersion(count(t), max(t.id), sum(t.id), sum(t.version)) "
+            + "from TodoItem t where t.tenantId = :tenantId")
+    TodoListVersion findListVersion(@Param("tenantId") String tenantId);
+
+    @Modifying
+    @Query("update TodoItem t set t.title = :title, t.done = :done, t.version = t.version + 1, "
+            + "t.updatedAt = current_timestamp "
+            + "where t.tenantId = :tenantId and t.id = :id and t.deletedAt is null")
+    int updateById(@Param("tenantId") String tenantId, @Param("id") long id,
+                   @Param("title") String title, @Param("done") Boolean done);
+
+    @Modifying
+    @Query("update TodoItem t set t.title = :title, t.done = :done, t.version = t.version + 1, "
+            + "t.updatedAt = current_timestamp "
+            + "where t.tenantId = :tenantId and t.id = :id and t.version = :version and t.deletedAt is null")
+    int updateByIdAndVersion(@Param("tenantId") String tenantId, @Param("id") long id,
+                             @Param("version") long version,
+                             @Param("title") String title, @Param("done") Boolean done);
+
+    @Modifying
+    @Query("delete from TodoItem t where t.tenantId = :tenantId and t.id = :id and t.deletedAt is null")
+    int removeById(@Param("tenantId") String tenantId, @Param("id") long id);
+
+    @Modifying
+    @Query("delete from TodoItem t where t.tenantId = :tenantId and t.id = :id and t.version = :version "
+            + "and t.deletedAt is null")
+    int removeByIdAndVersion(@Param("tenantId") String tenantId, @Param("id") long id,
+                             @Param("version") long version);
+
+    @Modifying
+    @Query("delete from TodoItem t where t.tenantId = :tenantId and t.id in :ids")
+    int deleteByIdIn(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update TodoItem t set t.deletedAt = current_timestamp "
+            + "where t.tenantId = :tenantId and t.id = :id and t.deletedAt is null")
+    int softDeleteById(@Param("tenantId") String tenantId, @Param("id") long id);
+
+    @Modifying
+    @Query("update TodoItem t set t.deletedAt = current_timestamp "
+            + "where t.tenantId = :tenantId and t.id = :id and t.version = :version and t.deletedAt is null")
+    int softDeleteByIdAndVersion(@Param("tenantId") String tenantId, @Param("id") long id,
+                                 @Param("version") long version);
+
+    @Modifying
+    @Query("update TodoItem t set t.deletedAt = current_timestamp "
+            + "where t.tenantId = :tenantId and t.id in :ids and t.deletedAt is null")
+    int softDeleteByIdIn(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids);
+
+    @Query("select new demo.todo.model.TodoItem(a.id, a.title, a.done) from ArchivedTodoItem a "
+            + "where a.tenantId = :tenantId order by a.id")
+    List<TodoItem> findArchivedByTenantId(@Param("tenantId") String tenantId);
+
+    @Query("select new demo.todo.model.TodoItem(a.id, a.title, a.done) from ArchivedTodoItem a "
+            + "where a.tenantId = :tenantId and a.id = :id")
+    Optional<TodoItem> findArchivedByTenantIdAndId(@Param("tenantId") String tenantId, @Param("id") long id);
+
+    /**
+     * Locks the longest untouched done items written before {@code cutoff}, of any tenant, with
+     * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so archivers on other instances take the next ones.
+     * Must be called within a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select t from TodoItem t where t.done = true and t.updatedAt < :cutoff order by t.updatedAt")
+    List<TodoItem> findArchivable(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("delete from TodoItem t where t.id in :ids")
+    int removeByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of rows soft-deleted before {@code cutoff}, oldest first. Native, because the entity's
+     * where clause hides exactly these rows from JPQL.
+     */
+    @Query(nativeQuery = true, value = "select ID from TODO_ITEMS where DELETED_AT < :cutoff "
+            + "order by DELETED_AT limit :limit")
+    List<Long> findPurgeable(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from TODO_ITEMS where ID in (:ids) and DELETED_AT is not null")
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,27 @@
+package demo.todo.data;
+
+import demo.todo.model.TodoItem;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public interface TodoRepositoryCustom {
+
+    /**
+     * Walks all todo items of the tenant in id order over a database cursor, handing each one to the consumer.
+     * Items are detached once consumed, so memory use does not grow with the size of the table.
+     * Must be called within a transaction.
+     */
+    void forEachTodo(String tenantId, Consumer<TodoItem> consumer);
+
+    /**
+     * Allocates the next todo item id from the same pooled sequence as {@code save}, usually without
+     * a database round trip.
+     */
+    long nextId();
+
+    /**
+     * Inserts todo items that already carry their id as one JDBC batch. Must be called within a transaction.
+     */
+    void insertAll(Collection<TodoItem> todoItems);
+}
@@ -0,0 +1,78 @@
+package demo.todo.data;
+
+import demo.todo.model.TodoItem;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.Query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+    private static final String INSERT_SQL = "insert into TODO_ITEMS (ID, TENANT_ID, TITLE, DONE, VERSION) values (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachTodo(String tenantId, Consumer<TodoItem> consumer) {
+        Query<TodoItem> query = entityManager
+                .createQuery("select t from TodoItem t where t.tenantId = :tenantId order by t.id", TodoItem.class)
+                .setParameter("tenantId", tenantId)
+                .setHint(QueryHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .unwrap(Query.class);
+
+        try (Stream<TodoItem> todos = query.stream()) {
+            todos.forEach(todoItem -> {
+                consumer.accept(todoItem);
+                entityManager.detach(todoItem);
+            });
+        }
+    }
+
+    @Override
+    public long nextId() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = sessionFactory.getMetamodel()
+                .entityPersister(TodoItem.class)
+                .getIdentifierGenerator();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) generator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+
+    @Override
+    public void insertAll(Collection<TodoItem> todoItems) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (TodoItem todoItem : todoItems) {
+                    statement.setLong(1, todoItem.getId());
+                    statement.setString(2, todoItem.getTenantId());
+                    statement.setString(3, todoItem.getTitle());
+                    statement.setObject(4, todoItem.getDone(), Types.BOOLEAN);
+                    statement.setLong(5, todoItem.getVersion());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
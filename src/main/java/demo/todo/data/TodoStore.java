@@ -0,0 +1,85 @@
+package demo.todo.data;
+
+import demo.todo.model.TodoItem;
+import demo.todo.model.TodoListVersion;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The todo item operations the service needs. Implemented by the Spring Data {@link TodoRepository}
+ * and by {@link JdbcTodoRepository}, which is used instead when {@code todo.repository=jdbc}.
+ * Every query is restricted to one tenant, so on Postgres it only scans that tenant's partition.
+ */
+public interface TodoStore {
+
+    List<TodoItem> findByTenantIdOrderByIdAsc(String tenantId);
+
+    /**
+     * The tenant's todo items in id order as a closed interface projection; only the columns behind
+     * the projection's getters are selected.
+     */
+    <T> List<T> findByTenantIdOrderByIdAsc(String tenantId, Class<T> projection);
+
+    TodoListVersion findListVersion(String tenantId);
+
+    List<TodoItem> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, long id, Pageable pageable);
+
+    List<TodoItem> findByTenantIdAndDoneOrderByIdAsc(String tenantId, boolean done, Pageable pageable);
+
+    List<TodoItem> searchByTitle(String tenantId, String pattern, Pageable pageable);
+
+    List<TodoItem> searchByTitleAndDone(String tenantId, String pattern, boolean done, Pageable pageable);
+
+    /**
+     * Walks the tenant's todo items in id order over a database cursor. Must be called within a transaction.
+     * The item handed to the consumer may be reused for the next row, so consumers must not keep it.
+     */
+    void forEachTodo(String tenantId, Consumer<TodoItem> consumer);
+
+    /**
+     * The tenant's archived todo items in id order, as read-only todo items.
+     */
+    List<TodoItem> findArchivedByTenantId(String tenantId);
+
+    Optional<TodoItem> findArchivedByTenantIdAndId(String tenantId, long id);
+
+    <S extends TodoItem> S save(S todoItem);
+
+    <S extends TodoItem> List<S> saveAll(Iterable<S> todoItems);
+
+    Optional<TodoItem> findByTenantIdAndId(String tenantId, long id);
+
+    List<TodoItem> findByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+
+    /**
+     * Like {@link #findByTenantIdAndIdIn}, but locks the rows found until the transaction ends, so a
+     * concurrent delete cannot take them in between. Must be called within a transaction.
+     */
+    List<TodoItem> findForUpdateByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+
+    boolean existsByTenantIdAndId(String tenantId, long id);
+
+    int updateById(String tenantId, long id, String title, Boolean done);
+
+    int updateByIdAndVersion(String tenantId, long id, long version, String title, Boolean done);
+
+    int removeById(String tenantId, long id);
+
+    int removeByIdAndVersion(String tenantId, long id, long version);
+
+    int deleteByIdIn(String tenantId, Collection<Long> ids);
+
+    /**
+     * Marks the item deleted with a single UPDATE; from then on no query sees it. Returns the number of
+     * rows marked, like {@link #removeById}.
+     */
+    int softDeleteById(String tenantId, long id);
+
+    int softDeleteByIdAndVersion(String tenantId, long id, long version);
+
+    int softDeleteByIdIn(String tenantId, Collection<Long> ids);
+}
@@ -0,0 +1,51 @@
+package demo.todo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A done todo item moved out of TODO_ITEMS by the archiver. Archived items are read-only; reads that ask
+ * for them get them back as plain {@link TodoItem}s.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "TODO_ITEMS_ARCHIVE")
+@IdClass(ArchivedTodoItem.Key.class)
+public class ArchivedTodoItem {
+
+    @Id
+    private String tenantId;
+
+    @Id
+    private long id;
+
+    private String title;
+
+    private Boolean done;
+
+    private long version;
+
+    private Instant updatedAt;
+
+    private Instant archivedAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private long id;
+    }
+}
@@ -0,0 +1,36 @@
+package demo.todo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A todo change written in the same transaction as the change itself, waiting to be relayed downstream.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "TODO_OUTBOX")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_outbox_seq")
+    @SequenceGenerator(name = "todo_outbox_seq", sequenceName = "TODO_OUTBOX_SEQ", allocationSize = 50)
+    private long id;
+
+    private String eventType;
+
+    private long todoId;
+
+    /**
+     * The {@link TodoEvent} as JSON.
+     */
+    private String payload;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,30 @@
+package demo.todo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * A change to one todo item of a tenant; {@code todo} is the item after the change and null for deletes.
+ * An archived item has left the todo list but can still be read with {@code includeArchived=true}.
+ * The sequence is assigned when the event enters the stream and is sent as the SSE event id.
+ */
+@Value
+@With
+public class TodoEvent {
+    public static final String ADDED = "added";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String ARCHIVED = "archived";
+
+    @JsonIgnore
+    private long sequence;
+    private String tenantId;
+    private String type;
+    private long id;
+    private TodoItem todo;
+
+    public static TodoEvent of(String tenantId, String type, long id, TodoItem todo) {
+        return new TodoEvent(0, tenantId, type, id, todo);
+    }
+}
@@ -1,11 +1,16 @@
 package demo.todo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Data
 @AllArgsConstructor
@@ -13,12 +18,61 @@ import javax.persistence.*;
 @Builder
 @Entity
 @Table(name = "TODO_ITEMS")
+@Where(clause = "DELETED_AT is null")
+@JsonSerialize(using = TodoItemSerializer.class)
 public class TodoItem {
+    public static final String DEFAULT_TENANT = "default";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_items_seq")
+    @SequenceGenerator(name = "todo_items_seq", sequenceName = "TODO_ITEMS_SEQ", allocationSize = 50)
     private long id;
 
+    /**
+     * The tenant owning the item, and the partition key of TODO_ITEMS; taken from the request, never from the body.
+     */
+    @JsonIgnore
+    @Builder.Default
+    private String tenantId = DEFAULT_TENANT;
+
     private String title;
 
     private Boolean done = false;
+
+    /**
+     * Incremented on every update; exposed to clients as the ETag rather than in the body.
+     */
+    @Version
+    @JsonIgnore
+    private long version;
+
+    /**
+     * When the item was last written; the archiver moves done items that have not been written for a while.
+     * Set by the database on insert and by every update.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @Column(insertable = false)
+    private Instant updatedAt;
+
+    /**
+     * Set instead of deleting the row when soft delete is on; such rows are left out of every query
+     * until the purge removes them.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @Column(insertable = false, updatable = false)
+    private Instant deletedAt;
+
+    public TodoItem(long id, String title, Boolean done) {
+        this.id = id;
+        this.title = title;
+        this.done = done;
+        this.tenantId = DEFAULT_TENANT;
+    }
+
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
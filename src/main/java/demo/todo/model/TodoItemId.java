@@ -0,0 +1,9 @@
+package demo.todo.model;
+
+/**
+ * Closed projection of a todo item onto its id, for {@code GET /todos?fields=id}.
+ */
+public interface TodoItemId {
+
+    long getId();
+}
@@ -0,0 +1,51 @@
+package demo.todo.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a todo item field by field, with pre-encoded field names and without reflection or boxing,
+ * producing the same JSON as the bean serializer would.
+ */
+public class TodoItemSerializer extends StdSerializer<TodoItem> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DONE = new SerializedString("done");
+
+    public TodoItemSerializer() {
+        super(TodoItem.class);
+    }
+
+    @Override
+    public void serialize(TodoItem todoItem, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(todoItem, generator);
+    }
+
+    /**
+     * Writes the item straight to the generator, for callers that stream items without an ObjectMapper.
+     */
+    public static void write(TodoItem todoItem, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(todoItem.getId());
+        generator.writeFieldName(TITLE);
+        if (todoItem.getTitle() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(todoItem.getTitle());
+        }
+        generator.writeFieldName(DONE);
+        if (todoItem.getDone() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(todoItem.getDone());
+        }
+        generator.writeEndObject();
+    }
+}
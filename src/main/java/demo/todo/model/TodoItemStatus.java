@@ -0,0 +1,9 @@
+package demo.todo.model;
+
+/**
+ * Closed projection of a todo item onto its id and done flag, for {@code GET /todos?fields=id,done}.
+ */
+public interface TodoItemStatus extends TodoItemId {
+
+    Boolean getDone();
+}
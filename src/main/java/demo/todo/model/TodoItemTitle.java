@@ -0,0 +1,9 @@
+package demo.todo.model;
+
+/**
+ * Closed projection of a todo item onto its id and title, for {@code GET /todos?fields=id,title}.
+ */
+public interface TodoItemTitle extends TodoItemId {
+
+    String getTitle();
+}
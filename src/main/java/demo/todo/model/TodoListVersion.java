@@ -0,0 +1,27 @@
+package demo.todo.model;
+
+import lombok.Value;
+
+/**
+ * Aggregate over all todo items that changes whenever an item is added, updated or deleted,
+ * so the list can be validated without loading its rows.
+ */
+@Value
+public class TodoListVersion {
+    private long count;
+    private long maxId;
+    private long idSum;
+    private long versionSum;
+
+    public TodoListVersion(Long count, Long maxId, Long idSum, Long versionSum) {
+        this.count = count == null ? 0 : count;
+        this.maxId = maxId == null ? 0 : maxId;
+        this.idSum = idSum == null ? 0 : idSum;
+        this.versionSum = versionSum == null ? 0 : versionSum;
+    }
+
+    public String asToken() {
+        return Long.toHexString(count) + "-" + Long.toHexString(maxId) + "-"
+                + Long.toHexString(idSum) + "-" + Long.toHexString(versionSum);
+    }
+}
@@ -0,0 +1,38 @@
+package demo.todo.service;
+
+import demo.todo.model.OutboxEvent;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Appends every relayed event payload as one line of JSON, and syncs the file before the batch is
+ * removed from the outbox.
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private Path file;
+
+    public FileOutboxSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void send(List<OutboxEvent> outboxEvents) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent outboxEvent : outboxEvents) {
+            lines.append(outboxEvent.getPayload()).append('\n');
+        }
+        try (FileOutputStream outputStream = new FileOutputStream(file.toFile(), true)) {
+            outputStream.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            outputStream.getFD().sync();
+        }
+    }
+}
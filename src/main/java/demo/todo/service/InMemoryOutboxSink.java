@@ -0,0 +1,35 @@
+package demo.todo.service;
+
+import demo.todo.model.OutboxEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recently relayed outbox events in memory.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private int capacity;
+    private Deque<OutboxEvent> outboxEvents = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void send(List<OutboxEvent> sentOutboxEvents) {
+        for (OutboxEvent outboxEvent : sentOutboxEvents) {
+            outboxEvents.addLast(outboxEvent);
+            if (outboxEvents.size() > capacity) {
+                outboxEvents.removeFirst();
+            }
+        }
+    }
+
+    public synchronized List<OutboxEvent> getOutboxEvents() {
+        return new ArrayList<>(outboxEvents);
+    }
+}
@@ -0,0 +1,117 @@
+package demo.todo.service;
+
+import demo.todo.config.OutboxProperties;
+import demo.todo.data.OutboxRepository;
+import demo.todo.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the outbox into the sink from a background thread, one batch per transaction: the batch is
+ * locked with SKIP LOCKED, sent, and deleted before the commit. Relays on several instances share the
+ * work without handing out an event twice; a failed batch is rolled back and picked up again.
+ * Keeps going without pause while batches come back full, and polls otherwise.
+ */
+public class OutboxRelay {
+
+    public static final String RELAYED_METRIC = "todo.outbox.relayed";
+    public static final String LAG_METRIC = "todo.outbox.lag";
+    public static final String BATCH_METRIC = "todo.outbox.batch";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private OutboxRepository outboxRepository;
+    private TransactionTemplate transactionTemplate;
+    private OutboxSink outboxSink;
+    private OutboxProperties properties;
+    private Thread relay;
+    private volatile boolean running;
+
+    private Counter relayedCounter;
+    private Timer lagTimer;
+    private Timer batchTimer;
+
+    public OutboxRelay(OutboxRepository outboxRepository, TransactionTemplate transactionTemplate,
+                       OutboxSink outboxSink, MeterRegistry meterRegistry, OutboxProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxSink = outboxSink;
+        this.properties = properties;
+        this.relayedCounter = meterRegistry.counter(RELAYED_METRIC);
+        this.lagTimer = Timer.builder(LAG_METRIC)
+                .description("Time from writing an event to the outbox until it was relayed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchTimer = meterRegistry.timer(BATCH_METRIC);
+    }
+
+    public void start() {
+        running = true;
+        relay = new Thread(this::relayContinuously, "todo-outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        if (relay != null) {
+            relay.interrupt();
+            relay.join(properties.getPollInterval().toMillis() * 10);
+        }
+    }
+
+    /**
+     * Relays one batch and returns the number of events in it.
+     */
+    public int relayBatch() {
+        Integer relayed = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<OutboxEvent> outboxEvents = outboxRepository.findAllByOrderByIdAsc(
+                    PageRequest.of(0, properties.getBatchSize()));
+            if (outboxEvents.isEmpty()) {
+                return 0;
+            }
+            try {
+                outboxSink.send(outboxEvents);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            outboxRepository.deleteAllInBatch(outboxEvents);
+
+            Instant now = Instant.now();
+            outboxEvents.forEach(outboxEvent -> lagTimer.record(Duration.between(outboxEvent.getCreatedAt(), now)));
+            relayedCounter.increment(outboxEvents.size());
+            return outboxEvents.size();
+        }));
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void relayContinuously() {
+        while (running) {
+            try {
+                if (relayBatch() < properties.getBatchSize()) {
+                    Thread.sleep(properties.getPollInterval().toMillis());
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the poll; the loop ends because running is false
+            } catch (RuntimeException e) {
+                log.warn("Failed to relay outbox batch, retrying", e);
+                try {
+                    Thread.sleep(properties.getPollInterval().toMillis());
+                } catch (InterruptedException interrupted) {
+                    // as above
+                }
+            }
+        }
+    }
+}
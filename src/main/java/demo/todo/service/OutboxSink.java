@@ -0,0 +1,15 @@
+package demo.todo.service;
+
+import demo.todo.model.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Downstream target of the outbox relay. Events are removed from the outbox only after {@code send}
+ * returns, so a sink sees every event at least once and may see a batch again after a failure.
+ */
+public interface OutboxSink {
+
+    void send(List<OutboxEvent> outboxEvents) throws IOException;
+}
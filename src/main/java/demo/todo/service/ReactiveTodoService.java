@@ -0,0 +1,48 @@
+package demo.todo.service;
+
+import demo.todo.data.ReactiveTodoRepository;
+import demo.todo.model.TodoItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveTodoService {
+
+    private ReactiveTodoRepository todoRepository;
+
+    @Autowired
+    public ReactiveTodoService(ReactiveTodoRepository todoRepository) {
+        this.todoRepository = todoRepository;
+    }
+
+    public Flux<TodoItem> getAllTodos() {
+        return todoRepository.findAll();
+    }
+
+    public Mono<TodoItem> addTodo(TodoItem todoItem) {
+        return todoRepository.insert(todoItem);
+    }
+
+    public Mono<TodoItem> getTodo(long id) {
+        return todoRepository.findById(id);
+    }
+
+    public Mono<TodoItem> updateTodo(long id, TodoItem todoItem) {
+        return todoRepository.updateById(id, todoItem)
+                .filter(updatedRows -> updatedRows > 0)
+                .map(updatedRows -> TodoItem.builder()
+                        .id(id)
+                        .title(todoItem.getTitle())
+                        .done(todoItem.getDone())
+                        .build());
+    }
+
+    public Mono<Boolean> deleteTodo(long id) {
+        return todoRepository.removeById(id)
+                .map(deletedRows -> deletedRows > 0);
+    }
+}
@@ -0,0 +1,151 @@
+package demo.todo.service;
+
+import demo.todo.config.ArchiveProperties;
+import demo.todo.data.TodoArchiveRepository;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoEvent;
+import demo.todo.model.TodoItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves done todo items that have not been written for {@code todo.archive.after} from TODO_ITEMS into
+ * TODO_ITEMS_ARCHIVE, so the table every request reads stays small. Runs on a schedule and moves one
+ * chunk per transaction: the chunk is locked with SKIP LOCKED, copied with one INSERT ... SELECT and
+ * deleted, so archivers on several instances share the work and requests are never blocked for long.
+ * Each archived item gets an {@link TodoEvent#ARCHIVED} event in the outbox and, once the chunk commits,
+ * on the event stream; its cache entry is evicted with the commit.
+ */
+public class TodoArchiver {
+
+    public static final String ARCHIVED_METRIC = "todo.archive.archived";
+    public static final String CHUNK_METRIC = "todo.archive.chunk";
+
+    private static final Logger log = LoggerFactory.getLogger(TodoArchiver.class);
+
+    private TodoRepository todoRepository;
+    private TodoArchiveRepository todoArchiveRepository;
+    private TodoOutbox todoOutbox;
+    private MessageChannel todoEventChannel;
+    private Cache todoCache;
+    private TransactionTemplate transactionTemplate;
+    private ArchiveProperties properties;
+    private ScheduledExecutorService scheduler;
+
+    private Counter archivedCounter;
+    private Timer chunkTimer;
+
+    public TodoArchiver(TodoRepository todoRepository, TodoArchiveRepository todoArchiveRepository,
+                        TodoOutbox todoOutbox, MessageChannel todoEventChannel, CacheManager cacheManager,
+                        TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                        ArchiveProperties properties) {
+        this.todoRepository = todoRepository;
+        this.todoArchiveRepository = todoArchiveRepository;
+        this.todoOutbox = todoOutbox;
+        this.todoEventChannel = todoEventChannel;
+        this.todoCache = cacheManager.getCache(TodoService.TODO_CACHE);
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.archivedCounter = meterRegistry.counter(ARCHIVED_METRIC);
+        this.chunkTimer = meterRegistry.timer(CHUNK_METRIC);
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::archiveScheduled, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Archives chunk after chunk until none is left and returns the number of todo items archived.
+     */
+    public int archive() {
+        Instant cutoff = Instant.now().minus(properties.getAfter());
+        int archived = 0;
+        int chunk;
+        do {
+            chunk = archiveChunk(cutoff);
+            archived += chunk;
+        } while (chunk == properties.getChunkSize() && !Thread.currentThread().isInterrupted());
+        return archived;
+    }
+
+    /**
+     * Archives one chunk of done todo items written before {@code cutoff} and returns its size.
+     */
+    public int archiveChunk(Instant cutoff) {
+        Integer archived = chunkTimer.record(() -> transactionTemplate.execute(status -> {
+            List<TodoItem> todoItems = todoRepository.findArchivable(cutoff,
+                    PageRequest.of(0, properties.getChunkSize()));
+            if (todoItems.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = todoItems.stream()
+                    .map(TodoItem::getId)
+                    .collect(Collectors.toList());
+            todoArchiveRepository.copyFromTodoItems(ids);
+            todoRepository.removeByIdIn(ids);
+            List<TodoEvent> todoEvents = todoItems.stream()
+                    .map(todoItem -> TodoEvent.of(todoItem.getTenantId(), TodoEvent.ARCHIVED, todoItem.getId(),
+                            todoItem))
+                    .collect(Collectors.toList());
+            todoOutbox.recordAll(todoEvents);
+            // the transaction-aware cache defers these to the commit
+            todoItems.forEach(todoItem -> todoCache.evict(todoItem.getTenantId() + ":" + todoItem.getId()));
+            announceAfterCommit(todoEvents);
+            archivedCounter.increment(ids.size());
+            return ids.size();
+        }));
+        return archived == null ? 0 : archived;
+    }
+
+    private void announceAfterCommit(List<TodoEvent> todoEvents) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                todoEvents.forEach(todoEvent -> todoEventChannel.send(MessageBuilder.withPayload(todoEvent).build()));
+            }
+        });
+    }
+
+    private void archiveScheduled() {
+        try {
+            int archived = archive();
+            if (archived > 0) {
+                log.info("Archived {} done todo items", archived);
+            }
+        } catch (RuntimeException e) {
+            // the next run retries; chunks already archived stay archived
+            log.warn("Failed to archive done todo items", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package demo.todo.service;
+
+import demo.todo.config.EventConfiguration;
+import demo.todo.config.EventProperties;
+import demo.todo.model.TodoEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbers the todo events coming off the event channel, keeps the most recent ones and sends them
+ * to every connected event stream client.
+ */
+@Service
+@Profile("!reactive")
+public class TodoEventStream {
+
+    static final String RESET_EVENT = "reset";
+
+    private EventProperties properties;
+    private Deque<TodoEvent> history = new ArrayDeque<>();
+    private Map<SseEmitter, String> emitters = new ConcurrentHashMap<>();
+    private long sequence;
+
+    @Autowired
+    public TodoEventStream(EventProperties properties) {
+        this.properties = properties;
+    }
+
+    @ServiceActivator(inputChannel = EventConfiguration.TODO_EVENT_CHANNEL)
+    public synchronized void publish(TodoEvent todoEvent) {
+        TodoEvent sequencedEvent = todoEvent.withSequence(++sequence);
+        history.addLast(sequencedEvent);
+        if (history.size() > properties.getHistorySize()) {
+            history.removeFirst();
+        }
+        emitters.forEach((emitter, tenantId) -> {
+            if (tenantId.equals(sequencedEvent.getTenantId())) {
+                send(emitter, sequencedEvent);
+            }
+        });
+    }
+
+    /**
+     * Opens a stream of the tenant's events after {@code lastEventId}. Events still in the history are replayed
+     * first; when some of them have been dropped already, or the id is from before a restart,
+     * a {@value #RESET_EVENT} event tells the client to reload the full list instead. Without a last event id only new events are sent.
+     */
+    public synchronized SseEmitter subscribe(String tenantId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.put(emitter, tenantId);
+
+        if (lastEventId != null && lastEventId != sequence) {
+            long oldestSequence = history.isEmpty() ? sequence + 1 : history.getFirst().getSequence();
+            if (lastEventId > sequence || lastEventId < oldestSequence - 1) {
+                sendReset(emitter);
+            } else {
+                history.stream()
+                        .filter(todoEvent -> todoEvent.getSequence() > lastEventId)
+                        .filter(todoEvent -> tenantId.equals(todoEvent.getTenantId()))
+                        .forEach(todoEvent -> send(emitter, todoEvent));
+            }
+        }
+        return emitter;
+    }
+
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    private void send(SseEmitter emitter, TodoEvent todoEvent) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(todoEvent.getSequence()))
+                    .name(todoEvent.getType())
+                    .data(todoEvent, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+        }
+    }
+
+    private void sendReset(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(sequence))
+                    .name(RESET_EVENT)
+                    .data(""));
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package demo.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.todo.data.OutboxRepository;
+import demo.todo.model.OutboxEvent;
+import demo.todo.model.TodoEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes todo events to the outbox table as part of the transaction that makes the change.
+ */
+@Service
+@Profile("!reactive")
+public class TodoOutbox {
+
+    private OutboxRepository outboxRepository;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public TodoOutbox(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(TodoEvent todoEvent) {
+        outboxRepository.save(toOutboxEvent(todoEvent));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<TodoEvent> todoEvents) {
+        List<OutboxEvent> outboxEvents = todoEvents.stream()
+                .map(this::toOutboxEvent)
+                .collect(Collectors.toList());
+        outboxRepository.saveAll(outboxEvents);
+    }
+
+    private OutboxEvent toOutboxEvent(TodoEvent todoEvent) {
+        try {
+            return OutboxEvent.builder()
+                    .eventType(todoEvent.getType())
+                    .todoId(todoEvent.getId())
+                    .payload(objectMapper.writeValueAsString(todoEvent))
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
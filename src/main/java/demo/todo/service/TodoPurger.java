@@ -0,0 +1,107 @@
+package demo.todo.service;
+
+import demo.todo.config.SoftDeleteProperties;
+import demo.todo.data.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Removes soft-deleted todo items for good. Runs on the {@code todo.soft-delete.purge-cron} schedule,
+ * meant for a low-traffic window, and deletes batch after batch with a pause in between, so a mass
+ * cleanup turns into a few large deletes at night instead of one row lock per request during the day.
+ */
+public class TodoPurger {
+
+    public static final String PURGED_METRIC = "todo.purge.purged";
+    public static final String BATCH_METRIC = "todo.purge.batch";
+
+    private static final Logger log = LoggerFactory.getLogger(TodoPurger.class);
+
+    private TodoRepository todoRepository;
+    private TransactionTemplate transactionTemplate;
+    private SoftDeleteProperties properties;
+    private ThreadPoolTaskScheduler scheduler;
+
+    private Counter purgedCounter;
+    private Timer batchTimer;
+
+    public TodoPurger(TodoRepository todoRepository, TransactionTemplate transactionTemplate,
+                      MeterRegistry meterRegistry, SoftDeleteProperties properties) {
+        this.todoRepository = todoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.purgedCounter = meterRegistry.counter(PURGED_METRIC);
+        this.batchTimer = meterRegistry.timer(BATCH_METRIC);
+    }
+
+    public void start() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("todo-purger-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        scheduler.schedule(this::purgeScheduled, new CronTrigger(properties.getPurgeCron()));
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Purges batch after batch until no row soft-deleted before the retention cutoff is left,
+     * and returns the number of rows removed.
+     */
+    public int purge() throws InterruptedException {
+        Instant cutoff = Instant.now().minus(properties.getPurgeAfter());
+        int purged = 0;
+        int batch;
+        do {
+            batch = purgeBatch(cutoff);
+            purged += batch;
+            if (batch == properties.getBatchSize()) {
+                Thread.sleep(properties.getBatchPause().toMillis());
+            }
+        } while (batch == properties.getBatchSize());
+        return purged;
+    }
+
+    /**
+     * Removes one batch of rows soft-deleted before {@code cutoff} and returns its size.
+     */
+    public int purgeBatch(Instant cutoff) {
+        Integer purged = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = todoRepository.findPurgeable(cutoff, properties.getBatchSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            int deleted = todoRepository.purgeByIdIn(ids);
+            purgedCounter.increment(deleted);
+            return ids.size();
+        }));
+        return purged == null ? 0 : purged;
+    }
+
+    private void purgeScheduled() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                log.info("Purged {} soft-deleted todo items", purged);
+            }
+        } catch (InterruptedException e) {
+            // shutdown interrupts the pause between batches; the next window picks up the rest
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge soft-deleted todo items", e);
+        }
+    }
+}
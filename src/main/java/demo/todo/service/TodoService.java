@@ -1,50 +1,378 @@
 package demo.todo.service;
 
-import demo.todo.data.TodoRepository;
+import demo.todo.config.EventConfiguration;
+import demo.todo.data.TodoStore;
+import demo.todo.model.TodoEvent;
 import demo.todo.model.TodoItem;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.stereotype.Service;
-import org.springframework.web.bind.annotation.DeleteMapping;
-import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
+@CacheConfig(cacheNames = TodoService.TODO_CACHE)
 public class TodoService {
 
-    private TodoRepository todoRepository;
+    public static final String TODO_CACHE = "todos";
+    public static final String OPERATION_METRIC = "todo.operation";
+    public static final String NOT_FOUND_METRIC = "todo.not.found";
 
+    private TodoStore todoRepository;
+    private MeterRegistry meterRegistry;
+    private MessageChannel todoEventChannel;
+    private TodoOutbox todoOutbox;
+    private TodoWriteBehindBuffer writeBehindBuffer;
+    private boolean softDelete;
+
+    public TodoService(TodoStore todoRepository) {
+        this(todoRepository, new SimpleMeterRegistry(), new NullChannel(), null, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Deletes only mark rows as deleted when a purger is there to remove them later.
+     */
     @Autowired
-    public TodoService(TodoRepository todoRepository){
+    public TodoService(TodoStore todoRepository, MeterRegistry meterRegistry,
+                       @Qualifier(EventConfiguration.TODO_EVENT_CHANNEL) MessageChannel todoEventChannel,
+                       TodoOutbox todoOutbox, Optional<TodoWriteBehindBuffer> writeBehindBuffer,
+                       Optional<TodoPurger> purger){
         this.todoRepository = todoRepository;
+        this.meterRegistry = meterRegistry;
+        this.todoEventChannel = todoEventChannel;
+        this.todoOutbox = todoOutbox;
+        this.writeBehindBuffer = writeBehindBuffer.orElse(null);
+        this.softDelete = purger.isPresent();
+    }
+
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "list"}, histogram = true)
+    @Transactional(readOnly = true)
+    public List<TodoItem> getAllTodos(String tenantId) {
+        return todoRepository.findByTenantIdOrderByIdAsc(tenantId);
+    }
+
+    /**
+     * All todo items in id order, including those the archiver moved out of the todo table.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "list-archived"}, histogram = true)
+    @Transactional(readOnly = true)
+    public List<TodoItem> getAllTodosIncludingArchived(String tenantId) {
+        List<TodoItem> todoItems = new ArrayList<>(todoRepository.findByTenantIdOrderByIdAsc(tenantId));
+        todoItems.addAll(todoRepository.findArchivedByTenantId(tenantId));
+        todoItems.sort(Comparator.comparingLong(TodoItem::getId));
+        return todoItems;
+    }
+
+    /**
+     * All todo items in id order, reading only the columns the projection exposes.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "list-fields"}, histogram = true)
+    @Transactional(readOnly = true)
+    public <T> List<T> getAllTodos(String tenantId, Class<T> projection) {
+        return todoRepository.findByTenantIdOrderByIdAsc(tenantId, projection);
+    }
+
+    /**
+     * Token that changes whenever any todo item changes, computed without loading the items.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "list-version"}, histogram = true)
+    @Transactional(readOnly = true)
+    public String getTodosVersion(String tenantId) {
+        return todoRepository.findListVersion(tenantId).asToken();
     }
 
-    public List<TodoItem> getAllTodos() {
-        return todoRepository.findAll();
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "page"}, histogram = true)
+    public List<TodoItem> getTodosAfter(String tenantId, long afterId, int limit) {
+        return todoRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(tenantId, afterId, PageRequest.of(0, limit));
     }
 
-    public TodoItem addTodo(TodoItem todoItem) {
-        return todoRepository.save(todoItem);
+    /**
+     * Finds at most {@code limit} todo items whose title contains {@code query}, ignoring case,
+     * optionally restricted to open or done items. Both criteria are optional.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "search"}, histogram = true)
+    public List<TodoItem> searchTodos(String tenantId, String query, Boolean done, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (query == null || query.isEmpty()) {
+            return done == null
+                    ? todoRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(tenantId, 0, page)
+                    : todoRepository.findByTenantIdAndDoneOrderByIdAsc(tenantId, done, page);
+        }
+        String pattern = "%" + escapeLike(query.toLowerCase(Locale.ROOT)) + "%";
+        return done == null
+                ? todoRepository.searchByTitle(tenantId, pattern, page)
+                : todoRepository.searchByTitleAndDone(tenantId, pattern, done, page);
+    }
+
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "stream"}, histogram = true)
+    @Transactional(readOnly = true)
+    public void streamAllTodos(String tenantId, Consumer<TodoItem> consumer) {
+        todoRepository.forEachTodo(tenantId, consumer);
+    }
+
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "add"}, histogram = true)
+    @Transactional
+    @CachePut(key = "#tenantId + ':' + #result.id")
+    public TodoItem addTodo(String tenantId, TodoItem todoItem) {
+        prepareNew(tenantId, todoItem);
+        if (writeBehindBuffer != null) {
+            // the buffer writes the outbox event together with the insert
+            TodoItem queuedTodoItem = writeBehindBuffer.add(todoItem);
+            announce(TodoEvent.of(tenantId, TodoEvent.ADDED, queuedTodoItem.getId(), queuedTodoItem));
+            return queuedTodoItem;
+        }
+        TodoItem addedTodoItem = todoRepository.save(todoItem);
+        publish(TodoEvent.ADDED, addedTodoItem);
+        return addedTodoItem;
+    }
+
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "add-batch"}, histogram = true)
+    @Transactional
+    public List<TodoItem> addTodos(String tenantId, List<TodoItem> todoItems) {
+        todoItems.forEach(todoItem -> prepareNew(tenantId, todoItem));
+        List<TodoItem> addedTodoItems = todoRepository.saveAll(todoItems);
+        addedTodoItems.forEach(addedTodoItem -> publish(TodoEvent.ADDED, addedTodoItem));
+        return addedTodoItems;
     }
 
 
-    public Optional<TodoItem> getTodo(long id) {
-        return todoRepository.findById(id);
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "get"}, histogram = true)
+    @Transactional(readOnly = true)
+    @Cacheable(key = "#tenantId + ':' + #id", unless = "#result == null")
+    public Optional<TodoItem> getTodo(String tenantId, long id) {
+        Optional<TodoItem> todoItem = todoRepository.findByTenantIdAndId(tenantId, id);
+        if (!todoItem.isPresent()) {
+            countNotFound("get");
+        }
+        return todoItem;
     }
 
-    public Optional<TodoItem> updateTodo(long id, TodoItem todoItem) {
-        return todoRepository.findById(id)
-                .map(foundTodoItem -> todoRepository.save(todoItem));
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "get-archived"}, histogram = true)
+    @Transactional(readOnly = true)
+    public Optional<TodoItem> getArchivedTodo(String tenantId, long id) {
+        return todoRepository.findArchivedByTenantIdAndId(tenantId, id);
     }
 
-    public Boolean deleteTodo(long id) {
-        return todoRepository.findById(id)
-                .map((foundTodoItem) -> {
-                    todoRepository.deleteById(id);
-                    return true;
+    /**
+     * Updates the todo item with a single UPDATE statement and reads it back for its new version;
+     * empty when no row has the given id.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "update"}, histogram = true)
+    @Transactional
+    @CacheEvict(key = "#tenantId + ':' + #id")
+    public Optional<TodoItem> updateTodo(String tenantId, long id, TodoItem todoItem) {
+        if (todoRepository.updateById(tenantId, id, todoItem.getTitle(), todoItem.getDone()) == 0) {
+            countNotFound("update");
+            return Optional.empty();
+        }
+        // the UPDATE holds the row lock until commit, so the row read back is the one just written
+        TodoItem updatedTodoItem = todoRepository.findByTenantIdAndId(tenantId, id)
+                .orElseThrow(() -> new IllegalStateException("Updated todo item " + id + " not found"));
+        publish(TodoEvent.UPDATED, updatedTodoItem);
+        return Optional.of(updatedTodoItem);
+    }
+
+    /**
+     * Updates the todo item only when it is still at the expected version.
+     *
+     * @throws OptimisticLockingFailureException when the item exists at another version
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "update"}, histogram = true)
+    @Transactional
+    @CacheEvict(key = "#tenantId + ':' + #id")
+    public Optional<TodoItem> updateTodo(String tenantId, long id, TodoItem todoItem, long expectedVersion) {
+        if (todoRepository.updateByIdAndVersion(tenantId, id, expectedVersion, todoItem.getTitle(),
+                todoItem.getDone()) == 0) {
+            failIfExists(tenantId, id);
+            countNotFound("update");
+            return Optional.empty();
+        }
+        TodoItem updatedTodoItem = TodoItem.builder()
+                .id(id)
+                .tenantId(tenantId)
+                .title(todoItem.getTitle())
+                .done(todoItem.getDone())
+                .version(expectedVersion + 1)
+                .build();
+        publish(TodoEvent.UPDATED, updatedTodoItem);
+        return Optional.of(updatedTodoItem);
+    }
+
+    /**
+     * Updates all given todo items in one transaction, or none of them when any id does not exist.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "update-batch"}, histogram = true)
+    @Transactional
+    @CacheEvict(allEntries = true)
+    public Optional<List<TodoItem>> updateTodos(String tenantId, List<TodoItem> todoItems) {
+        Set<Long> ids = todoItems.stream()
+                .map(TodoItem::getId)
+                .collect(Collectors.toSet());
+        Map<Long, TodoItem> foundTodoItems = todoRepository.findByTenantIdAndIdIn(tenantId, ids).stream()
+                .collect(Collectors.toMap(TodoItem::getId, Function.identity()));
+        if (foundTodoItems.size() != ids.size()) {
+            countNotFound("update-batch");
+            return Optional.empty();
+        }
+        List<TodoItem> updatedTodoItems = todoItems.stream()
+                .map(todoItem -> {
+                    TodoItem foundTodoItem = foundTodoItems.get(todoItem.getId());
+                    foundTodoItem.setTitle(todoItem.getTitle());
+                    foundTodoItem.setDone(todoItem.getDone());
+                    publish(TodoEvent.UPDATED, foundTodoItem);
+                    return foundTodoItem;
                 })
-                .orElse(false);
+                .collect(Collectors.toList());
+        // managed entities would be flushed anyway; the JDBC store needs the explicit save
+        todoRepository.saveAll(foundTodoItems.values());
+        return Optional.of(updatedTodoItems);
+    }
+
+    /**
+     * Deletes the tenant's todo items among the given ids; ids that do not exist are skipped and get no event.
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "delete-batch"}, histogram = true)
+    @Transactional
+    @CacheEvict(allEntries = true)
+    public int deleteTodos(String tenantId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // locked, so the ids found are exactly the ones this transaction deletes
+        List<Long> foundIds = todoRepository.findForUpdateByTenantIdAndIdIn(tenantId, ids).stream()
+                .map(TodoItem::getId)
+                .collect(Collectors.toList());
+        if (foundIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = softDelete
+                ? todoRepository.softDeleteByIdIn(tenantId, foundIds)
+                : todoRepository.deleteByIdIn(tenantId, foundIds);
+        foundIds.forEach(id -> publish(tenantId, TodoEvent.DELETED, id));
+        return deleted;
+    }
+
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "delete"}, histogram = true)
+    @Transactional
+    @CacheEvict(key = "#tenantId + ':' + #id")
+    public Boolean deleteTodo(String tenantId, long id) {
+        int deleted = softDelete
+                ? todoRepository.softDeleteById(tenantId, id)
+                : todoRepository.removeById(tenantId, id);
+        if (deleted == 0) {
+            countNotFound("delete");
+            return false;
+        }
+        publish(tenantId, TodoEvent.DELETED, id);
+        return true;
+    }
+
+    /**
+     * Deletes the todo item only when it is still at the expected version.
+     *
+     * @throws OptimisticLockingFailureException when the item exists at another version
+     */
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "delete"}, histogram = true)
+    @Transactional
+    @CacheEvict(key = "#tenantId + ':' + #id")
+    public Boolean deleteTodo(String tenantId, long id, long expectedVersion) {
+        int deleted = softDelete
+                ? todoRepository.softDeleteByIdAndVersion(tenantId, id, expectedVersion)
+                : todoRepository.removeByIdAndVersion(tenantId, id, expectedVersion);
+        if (deleted == 0) {
+            failIfExists(tenantId, id);
+            countNotFound("delete");
+            return false;
+        }
+        publish(tenantId, TodoEvent.DELETED, id);
+        return true;
+    }
+
+    private void publish(String type, TodoItem todoItem) {
+        publish(TodoEvent.of(todoItem.getTenantId(), type, todoItem.getId(), todoItem));
+    }
+
+    private void publish(String tenantId, String type, long id) {
+        publish(TodoEvent.of(tenantId, type, id, null));
+    }
+
+    /**
+     * Writes the event to the outbox in the current transaction and announces it once that commits.
+     */
+    private void publish(TodoEvent todoEvent) {
+        if (todoOutbox != null) {
+            todoOutbox.record(todoEvent);
+        }
+        announce(todoEvent);
+    }
+
+    /**
+     * Sends the event to the event stream once the surrounding transaction commits, so rolled back
+     * changes are never announced.
+     */
+    private void announce(TodoEvent todoEvent) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    todoEventChannel.send(MessageBuilder.withPayload(todoEvent).build());
+                }
+            });
+        } else {
+            todoEventChannel.send(MessageBuilder.withPayload(todoEvent).build());
+        }
+    }
+
+    /**
+     * Adding always inserts: an id or version in the request body would make the save a merge into
+     * whatever row has that id, whichever tenant it belongs to.
+     */
+    private static void prepareNew(String tenantId, TodoItem todoItem) {
+        todoItem.setId(0L);
+        todoItem.setVersion(0L);
+        todoItem.setTenantId(tenantId);
+    }
+
+    private void countNotFound(String operation) {
+        meterRegistry.counter(NOT_FOUND_METRIC, "operation", operation).increment();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private void failIfExists(String tenantId, long id) {
+        if (todoRepository.existsByTenantIdAndId(tenantId, id)) {
+            throw new OptimisticLockingFailureException("Todo item " + id + " was modified concurrently");
+        }
     }
 }
@@ -0,0 +1,204 @@
+package demo.todo.service;
+
+import demo.todo.config.WriteBehindProperties;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoEvent;
+import demo.todo.model.TodoItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts new todo items into a bounded queue and inserts them from a single background thread,
+ * in one batch per transaction together with their outbox events. Items get their id up front from the entity's pooled sequence,
+ * so callers can be answered before the insert happens.
+ * A batch is flushed once it is full or once its first item has waited for the flush interval.
+ * A batch that fails to insert is retried with a doubling backoff, which also holds back later batches;
+ * only when the retries run out are its items dropped and evicted from the todo cache.
+ */
+public class TodoWriteBehindBuffer {
+
+    public static final String QUEUED_METRIC = "todo.write-behind.queued";
+    public static final String FLUSH_METRIC = "todo.write-behind.flush";
+    public static final String FLUSHED_METRIC = "todo.write-behind.flushed";
+    public static final String RETRIED_METRIC = "todo.write-behind.retried";
+    public static final String DROPPED_METRIC = "todo.write-behind.dropped";
+
+    private static final Logger log = LoggerFactory.getLogger(TodoWriteBehindBuffer.class);
+
+    private TodoRepository todoRepository;
+    private TodoOutbox todoOutbox;
+    private TransactionTemplate transactionTemplate;
+    private WriteBehindProperties properties;
+    private Cache todoCache;
+    private BlockingQueue<TodoItem> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private Counter flushedCounter;
+    private Counter retriedCounter;
+    private Counter droppedCounter;
+
+    public TodoWriteBehindBuffer(TodoRepository todoRepository, TodoOutbox todoOutbox,
+                                 TransactionTemplate transactionTemplate, CacheManager cacheManager,
+                                 MeterRegistry meterRegistry, WriteBehindProperties properties) {
+        this.todoRepository = todoRepository;
+        this.todoOutbox = todoOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.todoCache = cacheManager.getCache(TodoService.TODO_CACHE);
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.flushTimer = meterRegistry.timer(FLUSH_METRIC);
+        this.flushedCounter = meterRegistry.counter(FLUSHED_METRIC);
+        this.retriedCounter = meterRegistry.counter(RETRIED_METRIC);
+        this.droppedCounter = meterRegistry.counter(DROPPED_METRIC);
+        meterRegistry.gauge(QUEUED_METRIC, queue, BlockingQueue::size);
+    }
+
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushContinuously, "todo-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting items and waits until everything already accepted has been inserted.
+     *
+     * @throws IllegalStateException when the queue is not flushed within the shutdown timeout
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        flusher.join(properties.getShutdownTimeout().toMillis());
+        if (flusher.isAlive()) {
+            log.error("Shut down with {} todo items not inserted after {}", queue.size(),
+                    properties.getShutdownTimeout());
+            throw new IllegalStateException("Write-behind buffer not flushed within "
+                    + properties.getShutdownTimeout());
+        }
+    }
+
+    /**
+     * Queues the todo item for insertion and returns it with its allocated id.
+     *
+     * @throws TaskRejectedException when the queue stays full for the offer timeout, or the buffer is stopped
+     */
+    public TodoItem add(TodoItem todoItem) {
+        if (!running) {
+            throw new TaskRejectedException("Write-behind buffer is not running");
+        }
+        TodoItem queuedTodoItem = TodoItem.builder()
+                .id(todoRepository.nextId())
+                .tenantId(todoItem.getTenantId())
+                .title(todoItem.getTitle())
+                .done(todoItem.getDone())
+                .build();
+        try {
+            if (!queue.offer(queuedTodoItem, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new TaskRejectedException("Write-behind queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for the write-behind queue");
+        }
+        // stopped while offering: the flusher may be gone, so take the item back unless it was already taken
+        if (!running && queue.remove(queuedTodoItem)) {
+            throw new TaskRejectedException("Write-behind buffer is not running");
+        }
+        return queuedTodoItem;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void flushContinuously() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<TodoItem> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                TodoItem first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == properties.getBatchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    TodoItem next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // flush what was taken and keep draining; stop() decides how long to wait
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<TodoItem> batch) {
+        long backoffMillis = properties.getRetryBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    todoRepository.insertAll(batch);
+                    todoOutbox.recordAll(batch.stream()
+                            .map(todoItem -> TodoEvent.of(todoItem.getTenantId(), TodoEvent.ADDED,
+                                    todoItem.getId(), todoItem))
+                            .collect(Collectors.toList()));
+                }));
+                flushedCounter.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getRetryAttempts()) {
+                    drop(batch, e);
+                    return;
+                }
+                retriedCounter.increment();
+                log.warn("Failed to insert {} buffered todo items, retrying in {} ms", batch.size(), backoffMillis, e);
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                // retry right away; stop() decides how long to wait
+            }
+            backoffMillis *= 2;
+        }
+    }
+
+    /**
+     * Gives up on the batch; its items were already answered and cached, so at least stop serving them.
+     */
+    private void drop(List<TodoItem> batch, RuntimeException cause) {
+        droppedCounter.increment(batch.size());
+        log.error("Dropped {} buffered todo items after {} retries: {}", batch.size(), properties.getRetryAttempts(),
+                batch.stream().map(TodoItem::getId).collect(Collectors.toList()), cause);
+        batch.forEach(todoItem -> todoCache.evict(todoItem.getTenantId() + ":" + todoItem.getId()));
+    }
+}
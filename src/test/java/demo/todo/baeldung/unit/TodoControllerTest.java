@@ -17,6 +17,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import java.util.Arrays;
 import java.util.Optional;
 
+import static demo.todo.model.TodoItem.DEFAULT_TENANT;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -39,7 +40,7 @@ public class TodoControllerTest {
         // given
         TodoItem preparedTodo1 = new TodoItem(1L, "Dummy item 1", false);
         TodoItem preparedTodo2 = new TodoItem(2L, "Dummy item 2", false);
-        Mockito.when(todoService.getAllTodos())
+        Mockito.when(todoService.getAllTodos(DEFAULT_TENANT))
                 .thenReturn(Arrays.asList(preparedTodo1, preparedTodo2));
 
         // when
@@ -58,7 +59,7 @@ public class TodoControllerTest {
 
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy item", false);
-        Mockito.when(todoService.getTodo(1L))
+        Mockito.when(todoService.getTodo(DEFAULT_TENANT, 1L))
                 .thenReturn(Optional.of(preparedTodo));
 
         // when
@@ -74,7 +75,7 @@ public class TodoControllerTest {
     public void given404WhenGetNotExisting() throws Exception {
 
         // given
-        Mockito.when(todoService.getTodo(1L))
+        Mockito.when(todoService.getTodo(DEFAULT_TENANT, 1L))
                 .thenReturn(Optional.empty());
 
         // when
@@ -89,7 +90,7 @@ public class TodoControllerTest {
     public void given204WhenDelete() throws Exception {
 
         // given
-        Mockito.when(todoService.deleteTodo(1L))
+        Mockito.when(todoService.deleteTodo(DEFAULT_TENANT, 1L))
                 .thenReturn(true);
 
         // when
@@ -104,7 +105,7 @@ public class TodoControllerTest {
     public void given404WhenDeleteNotExisting() throws Exception {
 
         // given
-        Mockito.when(todoService.deleteTodo(1L))
+        Mockito.when(todoService.deleteTodo(DEFAULT_TENANT, 1L))
                 .thenReturn(false);
 
         // when
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static demo.todo.model.TodoItem.DEFAULT_TENANT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.never;
 
@@ -36,11 +37,11 @@ public class TodoServiceTest {
         TodoItem preparedTodo1 = new TodoItem(1L, "Dummy 1", false);
         TodoItem preparedTodo2 = new TodoItem(2L, "Dummy 2", false);
 
-        Mockito.when(todoRepository.findAll())
+        Mockito.when(todoRepository.findByTenantIdOrderByIdAsc(DEFAULT_TENANT))
                 .thenReturn(Arrays.asList(preparedTodo1, preparedTodo2));
 
         // when
-        List<TodoItem> todos = todoService.getAllTodos();
+        List<TodoItem> todos = todoService.getAllTodos(DEFAULT_TENANT);
 
         // then
         assertThat(todos).hasSize(2);
@@ -53,11 +54,11 @@ public class TodoServiceTest {
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy item", false);
 
-        Mockito.when(todoRepository.findById(1L))
+        Mockito.when(todoRepository.findByTenantIdAndId(DEFAULT_TENANT, 1L))
                 .thenReturn(Optional.of(preparedTodo));
 
         // when
-        TodoItem todo = todoService.getTodo(1L).get();
+        TodoItem todo = todoService.getTodo(DEFAULT_TENANT, 1L).get();
 
         // then
         assertThat(todo.getTitle()).isEqualTo("Dummy item");
@@ -66,11 +67,11 @@ public class TodoServiceTest {
     @Test
     public void returnNoneWhenGetNotExisting() {
         // given
-        Mockito.when(todoRepository.findById(1L))
+        Mockito.when(todoRepository.findByTenantIdAndId(DEFAULT_TENANT, 1L))
                 .thenReturn(Optional.empty());
 
         // when
-        Optional<TodoItem> todo = todoService.getTodo(1L);
+        Optional<TodoItem> todo = todoService.getTodo(DEFAULT_TENANT, 1L);
 
         // then
         assertThat(todo).isNotPresent();
@@ -79,13 +80,11 @@ public class TodoServiceTest {
     @Test
     public void returnTrueWhenDelete() {
         // given
-        TodoItem preparedTodo = new TodoItem(1L, "Dummy item", false);
-
-        Mockito.when(todoRepository.findById(1L))
-                .thenReturn(Optional.of(preparedTodo));
+        Mockito.when(todoRepository.removeById(DEFAULT_TENANT, 1L))
+                .thenReturn(1);
 
         // when
-        Boolean result = todoService.deleteTodo(1L);
+        Boolean result = todoService.deleteTodo(DEFAULT_TENANT, 1L);
 
         // then
         assertThat(result).isTrue();
@@ -94,11 +93,11 @@ public class TodoServiceTest {
     @Test
     public void return404WhenDeleteNotExisting() {
         // given
-        Mockito.when(todoRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(todoRepository.removeById(DEFAULT_TENANT, 1L))
+                .thenReturn(0);
 
         // when
-        Boolean result = todoService.deleteTodo(1L);
+        Boolean result = todoService.deleteTodo(DEFAULT_TENANT, 1L);
 
         // then
         Mockito.verify(todoRepository, never()).deleteById(1L);
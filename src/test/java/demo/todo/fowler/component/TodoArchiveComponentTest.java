@@ -0,0 +1,167 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.OutboxRepository;
+import demo.todo.data.TodoArchiveRepository;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.OutboxEvent;
+import demo.todo.model.TodoEvent;
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoArchiver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hamcrest.collection.IsCollectionWithSize;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.archive.enabled=true", "todo.archive.after=1d", "todo.archive.chunk-size=2",
+        "spring.cache.type=caffeine"})
+@AutoConfigureMockMvc
+public class TodoArchiveComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoArchiveRepository todoArchiveRepository;
+
+    @Autowired
+    private TodoArchiver todoArchiver;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+        todoArchiveRepository.deleteAll();
+    }
+
+    @Test
+    public void givenOnlyOldDoneTodosArchivedWhenArchive() {
+
+        // given
+        TodoItem oldDone1 = saveWrittenDaysAgo("old done 1", true, 2);
+        TodoItem oldDone2 = saveWrittenDaysAgo("old done 2", true, 2);
+        TodoItem oldDone3 = saveWrittenDaysAgo("old done 3", true, 2);
+        TodoItem oldOpen = saveWrittenDaysAgo("old open", false, 2);
+        TodoItem recentDone = todoRepository.save(TodoItem.builder().title("recent done").done(true).build());
+
+        // when
+        int archived = todoArchiver.archive();
+
+        // then
+        assertThat(archived).isEqualTo(3);
+        assertThat(todoRepository.findAll())
+                .extracting(TodoItem::getId)
+                .containsExactlyInAnyOrder(oldOpen.getId(), recentDone.getId());
+        assertThat(todoRepository.findArchivedByTenantId(TodoItem.DEFAULT_TENANT))
+                .extracting(TodoItem::getId)
+                .containsExactly(oldDone1.getId(), oldDone2.getId(), oldDone3.getId());
+        assertThat(meterRegistry.get(TodoArchiver.ARCHIVED_METRIC).counter().count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    public void givenUpdatedTodoNotArchivedWhenArchive() throws Exception {
+
+        // given
+        TodoItem todoItem = saveWrittenDaysAgo("old done", true, 2);
+        mvc.perform(put("/todos/" + todoItem.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"old done updated\",\"done\":true}"))
+                .andExpect(status().isOk());
+
+        // when
+        int archived = todoArchiver.archive();
+
+        // then
+        assertThat(archived).isZero();
+    }
+
+    /**
+     * GET /todos/{id}
+     */
+    @Test
+    public void givenCachedTodoEvictedAndEventRecordedWhenArchive() throws Exception {
+
+        // given
+        TodoItem todoItem = saveWrittenDaysAgo("archived", true, 2);
+        mvc.perform(get("/todos/" + todoItem.getId()))
+                .andExpect(status().isOk());
+
+        // when
+        todoArchiver.archive();
+
+        // then
+        mvc.perform(get("/todos/" + todoItem.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(outboxRepository.findAll())
+                .filteredOn(outboxEvent -> outboxEvent.getTodoId() == todoItem.getId())
+                .extracting(OutboxEvent::getEventType)
+                .containsExactly(TodoEvent.ARCHIVED);
+    }
+
+    /**
+     * GET /todos?includeArchived=true
+     */
+    @Test
+    public void givenArchivedTodosWhenGetAllTodosIncludingArchived() throws Exception {
+
+        // given
+        TodoItem archivedTodo = saveWrittenDaysAgo("archived", true, 2);
+        todoRepository.save(TodoItem.builder().title("open").build());
+        todoArchiver.archive();
+
+        // when
+        mvc.perform(get("/todos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("open")));
+        mvc.perform(get("/todos").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is("archived")))
+                .andExpect(jsonPath("$[0].done", is(true)))
+                .andExpect(jsonPath("$[1].title", is("open")));
+        mvc.perform(get("/todos/" + archivedTodo.getId()))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/todos/" + archivedTodo.getId()).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("archived")));
+    }
+
+    private TodoItem saveWrittenDaysAgo(String title, boolean done, int days) {
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title(title).done(done).build());
+        jdbcTemplate.update("update TODO_ITEMS set UPDATED_AT = ? where ID = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(days))), todoItem.getId());
+        return todoItem;
+    }
+}
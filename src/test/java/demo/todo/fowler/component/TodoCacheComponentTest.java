@@ -0,0 +1,101 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static demo.todo.model.TodoItem.DEFAULT_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+public class TodoCacheComponentTest {
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+        cacheManager.getCache(TodoService.TODO_CACHE).clear();
+    }
+
+    @Test
+    public void givenCachedTodoWhenGetOne() {
+
+        // given
+        TodoItem todoItem = todoService.addTodo(DEFAULT_TENANT, TodoItem.builder().title("test 1").build());
+        todoRepository.deleteById(todoItem.getId());
+
+        // when
+        TodoItem cachedItem = todoService.getTodo(DEFAULT_TENANT, todoItem.getId()).get();
+
+        // then
+        assertThat(cachedItem.getTitle()).isEqualTo("test 1");
+    }
+
+    @Test
+    public void givenUpdatedTodoWhenGetOne() {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoService.getTodo(DEFAULT_TENANT, todoItem.getId());
+
+        // when
+        todoService.updateTodo(DEFAULT_TENANT, todoItem.getId(), TodoItem.builder().title("test 2").build());
+
+        // then
+        assertThat(todoService.getTodo(DEFAULT_TENANT, todoItem.getId()).get().getTitle()).isEqualTo("test 2");
+    }
+
+    @Test
+    public void givenDeletedTodoWhenGetOne() {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoService.getTodo(DEFAULT_TENANT, todoItem.getId());
+
+        // when
+        todoService.deleteTodo(DEFAULT_TENANT, todoItem.getId());
+
+        // then
+        assertThat(todoService.getTodo(DEFAULT_TENANT, todoItem.getId())).isNotPresent();
+    }
+
+    @Test
+    public void givenUpdateInTransactionWhenEvicted() {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoService.getTodo(DEFAULT_TENANT, todoItem.getId());
+        String key = DEFAULT_TENANT + ":" + todoItem.getId();
+
+        // when
+        Object cachedBeforeCommit = transactionTemplate.execute(status -> {
+            todoService.updateTodo(DEFAULT_TENANT, todoItem.getId(), TodoItem.builder().title("test 2").build());
+            return cacheManager.getCache(TodoService.TODO_CACHE).get(key);
+        });
+
+        // then
+        assertThat(cachedBeforeCommit).isNotNull();
+        assertThat(cacheManager.getCache(TodoService.TODO_CACHE).get(key)).isNull();
+    }
+}
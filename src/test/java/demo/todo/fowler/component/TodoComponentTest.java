@@ -1,6 +1,7 @@
 package demo.todo.fowler.component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.todo.controller.TodoController;
 import demo.todo.data.TodoRepository;
 import demo.todo.model.TodoItem;
 import org.hamcrest.collection.IsCollectionWithSize;
@@ -10,16 +11,22 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ActiveProfiles("test")
 @RunWith(SpringRunner.class)
@@ -57,6 +64,214 @@ public class TodoComponentTest {
                 .andExpect(jsonPath("$[1].title", is("test 2")));
     }
 
+    /**
+     * GET /todos
+     * X-Tenant-Id
+     */
+    @Test
+    public void givenOwnTodosOnlyWhenGetAllTodosOfTenant() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().tenantId("tenant-a").title("test a").build());
+        todoRepository.save(TodoItem.builder().tenantId("tenant-b").title("test b").build());
+        todoRepository.save(TodoItem.builder().title("test default").build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos").header(TodoController.TENANT_HEADER, "tenant-b"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("test b")))
+                .andExpect(jsonPath("$[0].tenantId").doesNotExist());
+    }
+
+    /**
+     * GET /todos
+     * If-None-Match
+     */
+    @Test
+    public void given304WhenGetAllTodosUnchanged() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("test 1").build());
+        String etag = mvc.perform(get("/todos"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        ResultActions response = mvc.perform(get("/todos").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // then
+        response.andExpect(status().isNotModified());
+    }
+
+    /**
+     * GET /todos
+     * If-None-Match
+     */
+    @Test
+    public void givenTodosWhenGetAllTodosChanged() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        String etag = mvc.perform(get("/todos"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(put("/todos/" + todoItem.getId())
+                .content(asJsonString(TodoItem.builder().title("test 2").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // when
+        ResultActions response = mvc.perform(get("/todos").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", is("test 2")));
+    }
+
+    /**
+     * GET /todos?fields=id,done
+     */
+    @Test
+    public void givenTodosWhenGetTodoFields() throws Exception {
+
+        // given
+        TodoItem todoItem1 = todoRepository.save(TodoItem.builder().title("test 1").done(true).build());
+        TodoItem todoItem2 = todoRepository.save(TodoItem.builder().title("test 2").done(false).build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos").param("fields", "id,done"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is((int) todoItem1.getId())))
+                .andExpect(jsonPath("$[0].done", is(true)))
+                .andExpect(jsonPath("$[1].id", is((int) todoItem2.getId())))
+                .andExpect(jsonPath("$[1].done", is(false)))
+                .andExpect(jsonPath("$[0].title").doesNotExist());
+    }
+
+    /**
+     * GET /todos?fields=title
+     */
+    @Test
+    public void givenTodosWhenGetTodoTitles() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("test 1").done(true).build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos").param("fields", "title"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].title", is("test 1")))
+                .andExpect(jsonPath("$[0].done").doesNotExist());
+    }
+
+    /**
+     * GET /todos?fields=version
+     */
+    @Test
+    public void given400WhenGetUnknownTodoFields() throws Exception {
+
+        // when
+        ResultActions response = mvc.perform(get("/todos").param("fields", "id,version"));
+
+        // then
+        response.andExpect(status().isBadRequest());
+    }
+
+    /**
+     * GET /todos?after={id}&limit={n}
+     */
+    @Test
+    public void givenTodosWhenGetPage() throws Exception {
+
+        // given
+        TodoItem todoItem1 = todoRepository.save(TodoItem.builder().title("test 1").build());
+        TodoItem todoItem2 = todoRepository.save(TodoItem.builder().title("test 2").build());
+        todoRepository.save(TodoItem.builder().title("test 3").build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos")
+                .param("after", String.valueOf(todoItem1.getId()))
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("test 2")))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "</todos?after=" + todoItem2.getId() + "&limit=1>; rel=\"next\""));
+    }
+
+    /**
+     * GET /todos/search?q={text}&done={done}
+     */
+    @Test
+    public void givenTodosWhenSearchTitleAndDone() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("Buy milk").done(false).build());
+        todoRepository.save(TodoItem.builder().title("buy bread").done(true).build());
+        todoRepository.save(TodoItem.builder().title("Walk dog").done(false).build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos/search")
+                .param("q", "BUY")
+                .param("done", "false"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Buy milk")));
+    }
+
+    /**
+     * GET /todos/search?q={text}
+     */
+    @Test
+    public void givenWildcardsMatchedLiterallyWhenSearch() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("100% done").build());
+        todoRepository.save(TodoItem.builder().title("100 done").build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos/search").param("q", "0%"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("100% done")));
+    }
+
+    /**
+     * GET /todos?stream=true
+     */
+    @Test
+    public void givenTodosWhenStreamAllTodos() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoRepository.save(TodoItem.builder().title("test 2").build());
+
+        // when
+        MvcResult result = mvc.perform(get("/todos").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mvc.perform(asyncDispatch(result));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is("test 1")))
+                .andExpect(jsonPath("$[1].title", is("test 2")));
+    }
+
     /**
      * POST /todos
      */
@@ -77,6 +292,98 @@ public class TodoComponentTest {
                 .andExpect(jsonPath("$.title", is("test 1")));
     }
 
+    /**
+     * POST /todos:batch
+     */
+    @Test
+    public void givenTodosOnBatchAdd() throws Exception {
+
+        // given
+        List<TodoItem> todoItems = Arrays.asList(
+                TodoItem.builder().title("test 1").build(),
+                TodoItem.builder().title("test 2").build());
+
+        // when
+        ResultActions response = mvc.perform(
+                post("/todos:batch")
+                        .content(asJsonString(todoItems))
+                        .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(2)))
+                .andExpect(jsonPath("$[1].title", is("test 2")));
+        assertThat(todoRepository.count()).isEqualTo(2);
+    }
+
+    /**
+     * PUT /todos:batch
+     */
+    @Test
+    public void givenTodosOnBatchUpdate() throws Exception {
+
+        // given
+        TodoItem todoItem1 = todoRepository.save(TodoItem.builder().title("test 1").build());
+        TodoItem todoItem2 = todoRepository.save(TodoItem.builder().title("test 2").build());
+
+        // when
+        todoItem1.setDone(true);
+        todoItem2.setDone(true);
+        ResultActions response = mvc.perform(
+                put("/todos:batch")
+                        .content(asJsonString(Arrays.asList(todoItem1, todoItem2)))
+                        .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].done", is(true)))
+                .andExpect(jsonPath("$[1].done", is(true)));
+    }
+
+    /**
+     * PUT /todos:batch
+     */
+    @Test
+    public void given404OnBatchUpdateNotExisting() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        todoItem.setTitle("test 2");
+        TodoItem missingItem = TodoItem.builder().id(todoItem.getId() + 1000).title("missing").build();
+        ResultActions response = mvc.perform(
+                put("/todos:batch")
+                        .content(asJsonString(Arrays.asList(todoItem, missingItem)))
+                        .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isNotFound());
+        assertThat(todoRepository.findById(todoItem.getId()).get().getTitle()).isEqualTo("test 1");
+    }
+
+    /**
+     * DELETE /todos:batch
+     */
+    @Test
+    public void given204OnBatchDelete() throws Exception {
+
+        // given
+        TodoItem todoItem1 = todoRepository.save(TodoItem.builder().title("test 1").build());
+        TodoItem todoItem2 = todoRepository.save(TodoItem.builder().title("test 2").build());
+        todoRepository.save(TodoItem.builder().title("test 3").build());
+
+        // when
+        ResultActions response = mvc.perform(
+                delete("/todos:batch")
+                        .content(asJsonString(Arrays.asList(todoItem1.getId(), todoItem2.getId())))
+                        .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isNoContent());
+        assertThat(todoRepository.count()).isEqualTo(1);
+    }
+
     /**
      * GET /todos/{id}
      */
@@ -94,6 +401,43 @@ public class TodoComponentTest {
                 .andExpect(jsonPath("$.title", is("test 1")));
     }
 
+    /**
+     * GET /todos/{id}
+     * X-Tenant-Id
+     */
+    @Test
+    public void given404OnGetOneOfOtherTenant() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().tenantId("tenant-a").title("test 1").build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos/" + todoItem.getId())
+                .header(TodoController.TENANT_HEADER, "tenant-b"));
+
+        // then
+        response.andExpect(status().isNotFound());
+    }
+
+    /**
+     * GET /todos/{id}
+     * If-None-Match
+     */
+    @Test
+    public void given304OnGetOneUnchanged() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        ResultActions response = mvc.perform(get("/todos/" + todoItem.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\""));
+
+        // then
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     /**
      * GET /todos/{id}
      */
@@ -124,9 +468,92 @@ public class TodoComponentTest {
 
         // then
         response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("$.title", is("test 2")));
     }
 
+    /**
+     * PUT /todos/{id}
+     * If-Match
+     */
+    @Test
+    public void givenTodoOnUpdateMatchingVersion() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        ResultActions response = mvc.perform(
+                put("/todos/" + todoItem.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(asJsonString(TodoItem.builder().title("test 2").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.title", is("test 2")));
+    }
+
+    /**
+     * PUT /todos/{id}
+     * If-Match
+     */
+    @Test
+    public void given412OnUpdateStaleVersion() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        mvc.perform(put("/todos/" + todoItem.getId())
+                .content(asJsonString(TodoItem.builder().title("test 2").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // when
+        ResultActions response = mvc.perform(
+                put("/todos/" + todoItem.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(asJsonString(TodoItem.builder().title("test 3").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isPreconditionFailed());
+        assertThat(todoRepository.findById(todoItem.getId()).get().getTitle()).isEqualTo("test 2");
+    }
+
+    /**
+     * DELETE /todos/{id}
+     * If-Match
+     */
+    @Test
+    public void given412OnDeleteStaleVersion() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        ResultActions response = mvc.perform(delete("/todos/" + todoItem.getId())
+                .header(HttpHeaders.IF_MATCH, "\"7\""));
+
+        // then
+        response.andExpect(status().isPreconditionFailed());
+        assertThat(todoRepository.existsById(todoItem.getId())).isTrue();
+    }
+
+    /**
+     * PUT /todos/{id}
+     */
+    @Test
+    public void given404OnUpdateNotExisting() throws Exception {
+        // when
+        ResultActions response = mvc.perform(
+                put("/todos/1")
+                .content(asJsonString(TodoItem.builder().id(1L).title("test 1").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isNotFound());
+    }
+
     /**
      * DELETE /todos/{id}
      */
@@ -143,6 +570,65 @@ public class TodoComponentTest {
         response.andExpect(status().isNoContent());
     }
 
+    /**
+     * POST /todos
+     * POST /todos:batch
+     * X-Tenant-Id
+     */
+    @Test
+    public void givenNewTodosOnAddWithIdOfOtherTenant() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().tenantId("tenant-a").title("test a").done(false)
+                .build());
+        String hijack = "{\"id\":" + todoItem.getId() + ",\"title\":\"test b\",\"done\":true}";
+
+        // when
+        ResultActions response = mvc.perform(post("/todos")
+                .header(TodoController.TENANT_HEADER, "tenant-b")
+                .content(hijack)
+                .contentType(MediaType.APPLICATION_JSON));
+        ResultActions batchResponse = mvc.perform(post("/todos:batch")
+                .header(TodoController.TENANT_HEADER, "tenant-b")
+                .content("[" + hijack + "]")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", not(is((int) todoItem.getId()))));
+        batchResponse.andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", not(is((int) todoItem.getId()))));
+        TodoItem untouched = todoRepository.findByTenantIdAndId("tenant-a", todoItem.getId()).get();
+        assertThat(untouched.getTitle()).isEqualTo("test a");
+        assertThat(untouched.getDone()).isFalse();
+        assertThat(todoRepository.findByTenantIdOrderByIdAsc("tenant-b")).hasSize(2);
+    }
+
+    /**
+     * POST /todos
+     * DELETE /todos/{id}
+     * X-Tenant-Id
+     */
+    @Test
+    public void given404OnDeleteOfOtherTenant() throws Exception {
+
+        // given
+        String added = mvc.perform(post("/todos")
+                .header(TodoController.TENANT_HEADER, "tenant-a")
+                .content(asJsonString(TodoItem.builder().title("test 1").build()))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        TodoItem todoItem = new ObjectMapper().readValue(added, TodoItem.class);
+
+        // when
+        ResultActions response = mvc.perform(delete("/todos/" + todoItem.getId())
+                .header(TodoController.TENANT_HEADER, "tenant-b"));
+
+        // then
+        response.andExpect(status().isNotFound());
+        assertThat(todoRepository.findByTenantIdAndId("tenant-a", todoItem.getId())).isPresent();
+    }
+
     /**
      * DELETE /todos/{id}
      */
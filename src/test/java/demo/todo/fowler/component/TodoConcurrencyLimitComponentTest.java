@@ -0,0 +1,49 @@
+package demo.todo.fowler.component;
+
+import demo.todo.controller.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A concurrency limit of zero turns every request away, which shows the limiter sits in front of the controller.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.limiter.concurrency.enabled=true", "todo.limiter.concurrency.initial-limit=0",
+        "todo.limiter.concurrency.min-limit=0", "todo.limiter.concurrency.max-limit=0"})
+@AutoConfigureMockMvc
+public class TodoConcurrencyLimitComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * GET /todos
+     */
+    @Test
+    public void given503WhenConcurrencyLimitReached() throws Exception {
+
+        // when
+        mvc.perform(get("/todos"))
+                .andExpect(status().isServiceUnavailable());
+
+        // then
+        assertThat(meterRegistry.get(LoadSheddingFilter.DECISION_METRIC)
+                .tags("limiter", "concurrency", "outcome", "rejected")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(LoadSheddingFilter.LIMIT_METRIC).gauge().value()).isZero();
+    }
+}
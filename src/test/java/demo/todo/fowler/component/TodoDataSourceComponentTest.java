@@ -0,0 +1,67 @@
+package demo.todo.fowler.component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import demo.todo.data.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest()
+public class TodoDataSourceComponentTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private WebMvcProperties webMvcProperties;
+
+    @Test
+    public void givenTunedPool() {
+
+        // when
+        HikariDataSource pool = (HikariDataSource) dataSource;
+
+        // then
+        assertThat(pool.getPoolName()).isEqualTo("todo-pool");
+        assertThat(pool.getLeakDetectionThreshold())
+                .isGreaterThan(webMvcProperties.getAsync().getRequestTimeout().toMillis());
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(10);
+    }
+
+    @Test
+    public void givenPoolMetricsWhenQueried() {
+
+        // given
+        todoRepository.count();
+
+        // when
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", "todo-pool")
+                .timer();
+
+        // then
+        assertThat(acquire).isNotNull();
+        assertThat(acquire.count()).isGreaterThan(0);
+        assertThat(acquire.takeSnapshot().percentileValues()).hasSize(3);
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.idle").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.pending").gauge()).isNotNull();
+    }
+}
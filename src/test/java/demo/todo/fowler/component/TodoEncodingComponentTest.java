@@ -0,0 +1,154 @@
+package demo.todo.fowler.component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@AutoConfigureMockMvc
+public class TodoEncodingComponentTest {
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final TypeReference<List<TodoItem>> TODO_LIST = new TypeReference<List<TodoItem>>() {};
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @LocalServerPort
+    private int port;
+
+    private RestTemplate restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    /**
+     * GET /todos
+     * Accept: application/cbor
+     */
+    @Test
+    public void givenTodosWhenGetAllTodosAsCbor() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoRepository.save(TodoItem.builder().title("test 2").build());
+
+        // when
+        MvcResult response = mvc.perform(get("/todos").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // then
+        List<TodoItem> todoItems = new ObjectMapper(new CBORFactory())
+                .readValue(response.getResponse().getContentAsByteArray(), TODO_LIST);
+        assertThat(todoItems).extracting(TodoItem::getTitle).containsExactly("test 1", "test 2");
+    }
+
+    /**
+     * GET /todos/search
+     * Accept: application/x-jackson-smile
+     */
+    @Test
+    public void givenTodosWhenSearchTodosAsSmile() throws Exception {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoRepository.save(TodoItem.builder().title("other").build());
+
+        // when
+        MvcResult response = mvc.perform(get("/todos/search").param("q", "test").accept(APPLICATION_SMILE))
+                .andReturn();
+
+        // then
+        assertThat(response.getResponse().getContentType()).isEqualTo(APPLICATION_SMILE.toString());
+        List<TodoItem> todoItems = new ObjectMapper(new SmileFactory())
+                .readValue(response.getResponse().getContentAsByteArray(), TODO_LIST);
+        assertThat(todoItems).extracting(TodoItem::getTitle).containsExactly("test 1");
+    }
+
+    /**
+     * GET /todos
+     * Accept-Encoding: gzip
+     */
+    @Test
+    public void givenLargeListWhenGetAllTodosGzipped() throws Exception {
+
+        // given
+        todoRepository.saveAll(IntStream.range(0, 200)
+                .mapToObj(i -> TodoItem.builder().title("test " + i).build())
+                .collect(Collectors.toList()));
+
+        // when
+        ResponseEntity<byte[]> response = getGzipped("/todos");
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        List<TodoItem> todoItems = new ObjectMapper()
+                .readValue(new GZIPInputStream(new ByteArrayInputStream(response.getBody())), TODO_LIST);
+        assertThat(todoItems).hasSize(200);
+    }
+
+    /**
+     * GET /todos
+     * Accept-Encoding: gzip
+     */
+    @Test
+    public void givenSmallListWhenGetAllTodosNotGzipped() {
+
+        // given
+        todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        ResponseEntity<byte[]> response = getGzipped("/todos");
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    private ResponseEntity<byte[]> getGzipped(String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        return restTemplate.exchange("http://localhost:" + port + path, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+    }
+}
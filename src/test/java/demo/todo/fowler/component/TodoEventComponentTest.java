@@ -0,0 +1,121 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.TodoRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest()
+@AutoConfigureMockMvc
+public class TodoEventComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    /**
+     * GET /todos/events
+     */
+    @Test
+    public void givenEventsWhenTodoAddedAndDeleted() throws Exception {
+
+        // given
+        MvcResult stream = mvc.perform(get("/todos/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when
+        String id = addTodo("event 1");
+        mvc.perform(delete("/todos/" + id)).andExpect(status().isNoContent());
+
+        // then
+        String events = awaitContent(stream, "event:deleted");
+        assertThat(events).contains("event:added", "\"title\":\"event 1\"", "\"id\":" + id);
+    }
+
+    /**
+     * GET /todos/events
+     * Last-Event-ID
+     */
+    @Test
+    public void givenMissedEventsWhenResumed() throws Exception {
+
+        // given
+        MvcResult stream = mvc.perform(get("/todos/events")).andReturn();
+        addTodo("missed 1");
+        addTodo("missed 2");
+        String events = awaitContent(stream, "missed 2");
+        Matcher firstId = Pattern.compile("id:(\\d+)").matcher(events);
+        assertThat(firstId.find()).isTrue();
+
+        // when
+        MvcResult resumed = mvc.perform(get("/todos/events").header("Last-Event-ID", firstId.group(1)))
+                .andReturn();
+
+        // then
+        String replayed = resumed.getResponse().getContentAsString();
+        assertThat(replayed).contains("missed 2").doesNotContain("missed 1");
+    }
+
+    /**
+     * GET /todos/events
+     * Last-Event-ID
+     */
+    @Test
+    public void givenResetWhenResumedFromUnknownId() throws Exception {
+
+        // when
+        MvcResult resumed = mvc.perform(get("/todos/events").header("Last-Event-ID", Long.MAX_VALUE))
+                .andReturn();
+
+        // then
+        assertThat(resumed.getResponse().getContentAsString()).contains("event:reset");
+    }
+
+    private String addTodo(String title) throws Exception {
+        String response = mvc.perform(post("/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Matcher id = Pattern.compile("\"id\":(\\d+)").matcher(response);
+        assertThat(id.find()).isTrue();
+        return id.group(1);
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
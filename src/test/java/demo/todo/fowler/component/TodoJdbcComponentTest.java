@@ -0,0 +1,29 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.JdbcTodoRepository;
+import demo.todo.data.TodoStore;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every component test against the JDBC store.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "todo.repository=jdbc")
+@AutoConfigureMockMvc
+public class TodoJdbcComponentTest extends TodoComponentTest {
+    @Autowired
+    private TodoStore todoStore;
+
+    @Test
+    public void givenJdbcStore() {
+
+        // then
+        assertThat(todoStore).isInstanceOf(JdbcTodoRepository.class);
+    }
+}
@@ -0,0 +1,68 @@
+package demo.todo.fowler.component;
+
+import demo.todo.controller.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.limiter.rate.enabled=true", "todo.limiter.rate.capacity=2",
+        "todo.limiter.rate.refill-per-second=0.01"})
+@AutoConfigureMockMvc
+public class TodoLimiterComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * GET /todos
+     * X-Api-Key
+     */
+    @Test
+    public void given429WhenTokenBucketEmpty() throws Exception {
+
+        // given
+        mvc.perform(get("/todos").header(LoadSheddingFilter.API_KEY_HEADER, "client-a"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/todos").header(LoadSheddingFilter.API_KEY_HEADER, "client-a"))
+                .andExpect(status().isOk());
+
+        // when
+        mvc.perform(get("/todos").header(LoadSheddingFilter.API_KEY_HEADER, "client-a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // then
+        mvc.perform(get("/todos").header(LoadSheddingFilter.API_KEY_HEADER, "client-b"))
+                .andExpect(status().isOk());
+        assertThat(meterRegistry.get(LoadSheddingFilter.DECISION_METRIC)
+                .tags("limiter", "rate", "outcome", "rejected")
+                .counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * GET /actuator/health
+     */
+    @Test
+    public void givenActuatorNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(get("/actuator/health").header(LoadSheddingFilter.API_KEY_HEADER, "client-c"))
+                    .andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest()
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class TodoMetricsComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    @Test
+    public void givenNotFoundCountedOnGetNotExisting() throws Exception {
+
+        // given
+        double notFoundBefore = notFoundCount("get");
+
+        // when
+        mvc.perform(get("/todos/1")).andExpect(status().isNotFound());
+
+        // then
+        assertThat(notFoundCount("get")).isEqualTo(notFoundBefore + 1);
+    }
+
+    @Test
+    public void givenOperationTimedOnGetOne() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        mvc.perform(get("/todos/" + todoItem.getId())).andExpect(status().isOk());
+
+        // then
+        assertThat(meterRegistry.find(TodoService.OPERATION_METRIC).tag("operation", "get").timer().count())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    public void givenHistogramsOnPrometheusEndpoint() throws Exception {
+
+        // given
+        mvc.perform(get("/todos"));
+
+        // when
+        ResultActions response = mvc.perform(get("/actuator/prometheus"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(content().string(containsString("todo_operation_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")));
+    }
+
+    private double notFoundCount(String operation) {
+        return meterRegistry.counter(TodoService.NOT_FOUND_METRIC, "operation", operation).count();
+    }
+}
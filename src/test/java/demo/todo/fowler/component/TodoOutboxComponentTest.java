@@ -0,0 +1,131 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.OutboxRepository;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.OutboxEvent;
+import demo.todo.model.TodoEvent;
+import demo.todo.model.TodoItem;
+import demo.todo.service.InMemoryOutboxSink;
+import demo.todo.service.OutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.outbox.relay-enabled=true", "todo.outbox.poll-interval=10ms"})
+@AutoConfigureMockMvc
+@DirtiesContext
+public class TodoOutboxComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    /**
+     * PUT /todos/{id}
+     * DELETE /todos/{id}
+     */
+    @Test
+    public void givenRelayedEventsWhenTodoUpdatedAndDeleted() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        mvc.perform(put("/todos/" + todoItem.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"test 1 updated\",\"done\":true}"))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/todos/" + todoItem.getId()))
+                .andExpect(status().isNoContent());
+
+        // then
+        List<String> relayedTypes = awaitRelayed(todoItem.getId(), 2);
+        assertThat(relayedTypes).containsExactly(TodoEvent.UPDATED, TodoEvent.DELETED);
+        assertThat(awaitOutboxEmpty()).isZero();
+        assertThat(meterRegistry.get(OutboxRelay.RELAYED_METRIC).counter().count()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get(OutboxRelay.LAG_METRIC).timer().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    /**
+     * PUT /todos/{id}
+     */
+    @Test
+    public void givenNoEventWhenUpdateNotExisting() throws Exception {
+
+        // when
+        mvc.perform(put("/todos/" + Long.MAX_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"missing\",\"done\":true}"))
+                .andExpect(status().isNotFound());
+
+        // then
+        assertThat(outboxRepository.findAll())
+                .extracting(OutboxEvent::getTodoId)
+                .doesNotContain(Long.MAX_VALUE);
+        assertThat(outboxSink.getOutboxEvents())
+                .extracting(OutboxEvent::getTodoId)
+                .doesNotContain(Long.MAX_VALUE);
+    }
+
+    private List<String> awaitRelayed(long todoId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String> relayedTypes = relayedTypes(todoId);
+        while (relayedTypes.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            relayedTypes = relayedTypes(todoId);
+        }
+        return relayedTypes;
+    }
+
+    /**
+     * The sink sees a batch before the relay's transaction deletes it from the outbox.
+     */
+    private long awaitOutboxEmpty() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return outboxRepository.count();
+    }
+
+    private List<String> relayedTypes(long todoId) {
+        return outboxSink.getOutboxEvents().stream()
+                .filter(outboxEvent -> outboxEvent.getTodoId() == todoId)
+                .map(OutboxEvent::getEventType)
+                .collect(Collectors.toList());
+    }
+}
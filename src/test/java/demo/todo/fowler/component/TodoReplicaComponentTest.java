@@ -0,0 +1,97 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.ReplicaRoutingDataSource;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The first replica is the test database itself; the second one cannot be reached.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "todo.datasource.replicas[0].url=jdbc:hsqldb:mem:testdb",
+        "todo.datasource.replicas[0].username=sa",
+        "todo.datasource.replicas[1].url=jdbc:hsqldb:hsql://localhost:1/unreachable",
+        "todo.datasource.replicas[1].username=sa",
+        "todo.datasource.connection-timeout=250ms"})
+@AutoConfigureMockMvc
+public class TodoReplicaComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    /**
+     * GET /todos/{id}
+     */
+    @Test
+    public void givenReadsOnHealthyReplicaWhenGetTodos() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        double replicaBefore = routed("replica");
+        double primaryBefore = routed("primary");
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            mvc.perform(get("/todos/" + todoItem.getId())).andExpect(status().isOk());
+        }
+
+        // then
+        assertThat(routed("replica")).isEqualTo(replicaBefore + 4);
+        assertThat(routed("primary")).isEqualTo(primaryBefore);
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "todo-replica-0").timer())
+                .isNotNull();
+    }
+
+    /**
+     * PUT /todos/{id}
+     */
+    @Test
+    public void givenWritesOnPrimaryWhenUpdateTodo() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        double replicaBefore = routed("replica");
+
+        // when
+        mvc.perform(put("/todos/" + todoItem.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"test 1 updated\",\"done\":true}"))
+                .andExpect(status().isOk());
+
+        // then
+        assertThat(routed("replica")).isEqualTo(replicaBefore);
+        assertThat(todoRepository.findById(todoItem.getId()).get().getTitle()).isEqualTo("test 1 updated");
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTE_METRIC).tag("target", target).functionCounter().count();
+    }
+}
@@ -0,0 +1,126 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoPurger;
+import org.hamcrest.collection.IsCollectionWithSize;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static demo.todo.fowler.component.TodoComponentTest.asJsonString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.soft-delete.enabled=true", "todo.soft-delete.purge-after=0s",
+        "todo.soft-delete.batch-size=2", "todo.soft-delete.batch-pause=1ms"})
+@AutoConfigureMockMvc
+public class TodoSoftDeleteComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoPurger todoPurger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setup() {
+        // the repository only sees live rows, so soft-deleted ones are cleared with plain SQL
+        jdbcTemplate.update("delete from TODO_ITEMS");
+    }
+
+    /**
+     * DELETE /todos/{id}
+     */
+    @Test
+    public void givenRowKeptButHiddenOnDelete() throws Exception {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+        todoRepository.save(TodoItem.builder().title("test 2").build());
+
+        // when
+        mvc.perform(delete("/todos/" + todoItem.getId()))
+                .andExpect(status().isNoContent());
+
+        // then
+        assertThat(deletedRows()).isEqualTo(1);
+        mvc.perform(get("/todos/" + todoItem.getId()))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/todos"))
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("test 2")));
+        mvc.perform(put("/todos/" + todoItem.getId())
+                .content(asJsonString(TodoItem.builder().title("test 1 updated").build()))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        mvc.perform(delete("/todos/" + todoItem.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * DELETE /todos:batch
+     */
+    @Test
+    public void givenRowsKeptButHiddenOnBatchDelete() throws Exception {
+
+        // given
+        TodoItem todoItem1 = todoRepository.save(TodoItem.builder().title("test 1").build());
+        TodoItem todoItem2 = todoRepository.save(TodoItem.builder().title("test 2").build());
+
+        // when
+        mvc.perform(delete("/todos:batch")
+                .content(asJsonString(new long[]{todoItem1.getId(), todoItem2.getId()}))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        // then
+        assertThat(deletedRows()).isEqualTo(2);
+        assertThat(todoRepository.findByTenantIdOrderByIdAsc(TodoItem.DEFAULT_TENANT)).isEmpty();
+    }
+
+    @Test
+    public void givenOnlySoftDeletedRowsRemovedWhenPurge() throws Exception {
+
+        // given
+        for (int i = 0; i < 5; i++) {
+            TodoItem todoItem = todoRepository.save(TodoItem.builder().title("deleted " + i).build());
+            mvc.perform(delete("/todos/" + todoItem.getId()));
+        }
+        TodoItem liveTodo = todoRepository.save(TodoItem.builder().title("live").build());
+
+        // when
+        int purged = todoPurger.purge();
+
+        // then
+        assertThat(purged).isEqualTo(5);
+        assertThat(deletedRows()).isZero();
+        assertThat(jdbcTemplate.queryForList("select ID from TODO_ITEMS", Long.class))
+                .containsExactly(liveTodo.getId());
+    }
+
+    private int deletedRows() {
+        return jdbcTemplate.queryForObject("select count(*) from TODO_ITEMS where DELETED_AT is not null",
+                Integer.class);
+    }
+}
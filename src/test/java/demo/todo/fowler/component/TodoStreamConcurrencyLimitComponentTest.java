@@ -0,0 +1,82 @@
+package demo.todo.fowler.component;
+
+import demo.todo.controller.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With room for a single request in flight, a streamed response has to keep its slot until it completes.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.limiter.concurrency.enabled=true", "todo.limiter.concurrency.initial-limit=1",
+        "todo.limiter.concurrency.min-limit=1", "todo.limiter.concurrency.max-limit=1"})
+@AutoConfigureMockMvc
+public class TodoStreamConcurrencyLimitComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * GET /todos?stream=true
+     */
+    @Test
+    public void given503WhileTodosStreamed() throws Exception {
+
+        // given
+        MvcResult streaming = mvc.perform(get("/todos").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when
+        mvc.perform(get("/todos"))
+                .andExpect(status().isServiceUnavailable());
+        double inFlightWhileStreaming = inFlight();
+        mvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk());
+
+        // then
+        assertThat(inFlightWhileStreaming).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+        mvc.perform(get("/todos"))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * GET /todos/events
+     */
+    @Test
+    public void givenNoSlotTakenByEventStream() throws Exception {
+
+        // given
+        mvc.perform(get("/todos/events"))
+                .andExpect(request().asyncStarted());
+
+        // when
+        mvc.perform(get("/todos"))
+                .andExpect(status().isOk());
+
+        // then
+        assertThat(inFlight()).isZero();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get(LoadSheddingFilter.IN_FLIGHT_METRIC).gauge().value();
+    }
+}
@@ -0,0 +1,96 @@
+package demo.todo.fowler.component;
+
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = "todo.virtual-threads.enabled=true")
+public class TodoVirtualThreadComponentTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    @Test
+    public void givenVirtualThreadsWhenTomcatHandlesRequest() throws Exception {
+
+        // given
+        Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat()
+                .getConnector().getProtocolHandler().getExecutor();
+
+        // when
+        boolean virtual = isVirtual(executor);
+
+        // then
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    public void givenVirtualThreadsWhenAsyncRequestCompletes() throws Exception {
+
+        // when
+        boolean virtual = isVirtual(applicationTaskExecutor);
+
+        // then
+        assertThat(virtual).isTrue();
+    }
+
+    /**
+     * GET /todos/{id}
+     */
+    @Test
+    public void givenTodoWhenGetOneOnVirtualThread() {
+
+        // given
+        TodoItem todoItem = todoRepository.save(TodoItem.builder().title("test 1").build());
+
+        // when
+        ResponseEntity<TodoItem> response = restTemplate.getForEntity("/todos/" + todoItem.getId(), TodoItem.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getTitle()).isEqualTo("test 1");
+    }
+
+    private static boolean isVirtual(Executor executor) throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        return virtual.get(5, TimeUnit.SECONDS);
+    }
+}
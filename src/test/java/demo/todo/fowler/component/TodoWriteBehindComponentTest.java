@@ -0,0 +1,74 @@
+package demo.todo.fowler.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoWriteBehindBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"todo.write-behind.enabled=true", "todo.write-behind.batch-size=3"})
+@AutoConfigureMockMvc
+public class TodoWriteBehindComponentTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoWriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Before
+    public void setup() {
+        todoRepository.deleteAll();
+    }
+
+    /**
+     * POST /todos
+     */
+    @Test
+    public void givenIdsAndInsertedWhenAddTodosBuffered() throws Exception {
+
+        // given
+        Set<Long> ids = new HashSet<>();
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            String response = mvc.perform(post("/todos")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"test " + i + "\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readValue(response, TodoItem.class).getId());
+        }
+
+        // then
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((writeBehindBuffer.size() > 0 || todoRepository.count() < 7) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(ids).hasSize(7).doesNotContain(0L);
+        assertThat(todoRepository.findAllById(ids)).hasSize(7);
+    }
+}
@@ -0,0 +1,95 @@
+package demo.todo.fowler.unit;
+
+import demo.todo.controller.AdaptiveConcurrencyLimiter;
+import demo.todo.controller.TokenBucket;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void rejectAboveLimit() {
+
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.2);
+
+        // when
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void growLimitWhileLatencyStaysFlat() {
+
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.2);
+
+        // when
+        runSaturated(limiter, 10 * MILLIS, 50);
+
+        // then
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    public void shrinkLimitWhenLatencyRises() {
+
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 2.0, 0.2);
+        runSaturated(limiter, 10 * MILLIS, 100);
+        int limitBefore = limiter.getLimit();
+
+        // when
+        runSaturated(limiter, 100 * MILLIS, 1);
+
+        // then
+        assertThat(limiter.getLimit()).isLessThan(limitBefore);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    public void rejectEmptyTokenBucketUntilRefilled() {
+
+        // given
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+        // when
+        long first = bucket.tryConsume(0);
+        long second = bucket.tryConsume(0);
+        long third = bucket.tryConsume(0);
+        long refilled = bucket.tryConsume(100 * MILLIS);
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(100 * MILLIS);
+        assertThat(refilled).isZero();
+    }
+
+    /**
+     * Fills the limiter and releases every request with the given latency, the way a saturated server would.
+     */
+    private static void runSaturated(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package demo.todo.fowler.unit;
+
+import demo.todo.controller.ReactiveTodoController;
+import demo.todo.model.TodoItem;
+import demo.todo.service.ReactiveTodoService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ReactiveTodoControllerTest {
+
+    private WebTestClient client;
+    @Mock
+    private ReactiveTodoService todoService;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        client = WebTestClient.bindToController(new ReactiveTodoController(todoService)).build();
+    }
+
+    @Test
+    public void givenTodosWhenGetAllTodos() {
+
+        // given
+        TodoItem preparedTodo1 = new TodoItem(1L, "Dummy 1", false);
+        TodoItem preparedTodo2 = new TodoItem(2L, "Dummy 2", false);
+        given(todoService.getAllTodos())
+                .willReturn(Flux.just(preparedTodo1, preparedTodo2));
+
+        // when
+        WebTestClient.ResponseSpec response = client.get().uri("/todos")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // then
+        response.expectStatus().isOk()
+                .expectBodyList(TodoItem.class).hasSize(2).contains(preparedTodo1, preparedTodo2);
+    }
+
+    @Test
+    public void givenTodosWhenStreamAllTodos() {
+
+        // given
+        TodoItem preparedTodo1 = new TodoItem(1L, "Dummy 1", false);
+        TodoItem preparedTodo2 = new TodoItem(2L, "Dummy 2", false);
+        given(todoService.getAllTodos())
+                .willReturn(Flux.just(preparedTodo1, preparedTodo2));
+
+        // when
+        WebTestClient.ResponseSpec response = client.get().uri("/todos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // then
+        response.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(
+                        "{\"id\":1,\"title\":\"Dummy 1\",\"done\":false}\n"
+                                + "{\"id\":2,\"title\":\"Dummy 2\",\"done\":false}\n");
+    }
+
+    @Test
+    public void givenTodoWhenGetOne() {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(1L, "Dummy 1", false);
+        given(todoService.getTodo(1L))
+                .willReturn(Mono.just(preparedTodo));
+
+        // when
+        WebTestClient.ResponseSpec response = client.get().uri("/todos/1").exchange();
+
+        // then
+        response.expectStatus().isOk()
+                .expectBody(TodoItem.class).isEqualTo(preparedTodo);
+    }
+
+    @Test
+    public void given404WhenGetNotExisting() {
+
+        // given
+        given(todoService.getTodo(1L))
+                .willReturn(Mono.empty());
+
+        // when
+        WebTestClient.ResponseSpec response = client.get().uri("/todos/1").exchange();
+
+        // then
+        response.expectStatus().isNotFound();
+    }
+
+    @Test
+    public void given404WhenPutNotExisting() {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(1L, "Dummy 1 updated", false);
+        given(todoService.updateTodo(1L, preparedTodo))
+                .willReturn(Mono.empty());
+
+        // when
+        WebTestClient.ResponseSpec response = client.put().uri("/todos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(preparedTodo)
+                .exchange();
+
+        // then
+        response.expectStatus().isNotFound();
+    }
+
+    @Test
+    public void given204WhenDelete() {
+
+        // given
+        given(todoService.deleteTodo(1L))
+                .willReturn(Mono.just(true));
+
+        // when
+        WebTestClient.ResponseSpec response = client.delete().uri("/todos/1").exchange();
+
+        // then
+        response.expectStatus().isNoContent();
+    }
+}
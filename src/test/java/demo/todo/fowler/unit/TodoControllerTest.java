@@ -8,11 +8,14 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static demo.todo.model.TodoItem.DEFAULT_TENANT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -36,11 +39,12 @@ public class TodoControllerTest {
         TodoItem preparedTodo1 = new TodoItem(1L, "Dummy 1", false);
         TodoItem preparedTodo2 = new TodoItem(2L, "Dummy 2", false);
 
-        given(todoService.getAllTodos())
+        given(todoService.getAllTodos(DEFAULT_TENANT))
                 .willReturn(Arrays.asList(preparedTodo1, preparedTodo2));
 
         // when
-        ResponseEntity<List<TodoItem>> response = todoController.getTodos();
+        ResponseEntity<List<TodoItem>> response = todoController.getTodos(false, DEFAULT_TENANT,
+                new ServletWebRequest(new MockHttpServletRequest()));
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -52,11 +56,11 @@ public class TodoControllerTest {
 
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy 1", false);
-        given(todoService.getTodo(1L))
+        given(todoService.getTodo(DEFAULT_TENANT, 1L))
                 .willReturn(Optional.of(preparedTodo));
 
         // when
-        ResponseEntity<TodoItem> response = todoController.getTodo(1L);
+        ResponseEntity<TodoItem> response = todoController.getTodo(1L, false, DEFAULT_TENANT);
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -68,11 +72,11 @@ public class TodoControllerTest {
 
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy 1", false);
-        given(todoService.addTodo(preparedTodo))
+        given(todoService.addTodo(DEFAULT_TENANT, preparedTodo))
                 .willReturn(preparedTodo);
 
         // when
-        ResponseEntity<TodoItem> response = todoController.addTodo(preparedTodo);
+        ResponseEntity<TodoItem> response = todoController.addTodo(preparedTodo, DEFAULT_TENANT);
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -85,11 +89,11 @@ public class TodoControllerTest {
 
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy 1 updated", false);
-        given(todoService.updateTodo(1L, preparedTodo))
+        given(todoService.updateTodo(DEFAULT_TENANT, 1L, preparedTodo))
                 .willReturn(Optional.of(preparedTodo));
 
         // when
-        ResponseEntity<TodoItem> response = todoController.updateTodo(1L, preparedTodo);
+        ResponseEntity<TodoItem> response = todoController.updateTodo(1L, preparedTodo, null, DEFAULT_TENANT);
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -101,11 +105,11 @@ public class TodoControllerTest {
     public void given404WhenNotExisting() {
 
         // given
-        given(todoService.getTodo(1L))
+        given(todoService.getTodo(DEFAULT_TENANT, 1L))
                 .willReturn(Optional.empty());
 
         // when
-        ResponseEntity<TodoItem> response = todoController.getTodo(1L);
+        ResponseEntity<TodoItem> response = todoController.getTodo(1L, false, DEFAULT_TENANT);
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -117,11 +121,11 @@ public class TodoControllerTest {
     public void given204WhenDelete() {
 
         // given
-        given(todoService.deleteTodo(1L))
+        given(todoService.deleteTodo(DEFAULT_TENANT, 1L))
                 .willReturn(true);
 
         // when
-        ResponseEntity response = todoController.deleteTodo(1L);
+        ResponseEntity response = todoController.deleteTodo(1L, null, DEFAULT_TENANT);
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
@@ -131,11 +135,11 @@ public class TodoControllerTest {
     public void given404WhenDeleteNotExisting() {
 
         // given
-        given(todoService.deleteTodo(1L))
+        given(todoService.deleteTodo(DEFAULT_TENANT, 1L))
                 .willReturn(false);
 
         // when
-        ResponseEntity response = todoController.deleteTodo(1L);
+        ResponseEntity response = todoController.deleteTodo(1L, null, DEFAULT_TENANT);
 
         // then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
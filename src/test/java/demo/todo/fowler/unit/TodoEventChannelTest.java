@@ -0,0 +1,57 @@
+package demo.todo.fowler.unit;
+
+import demo.todo.config.EventConfiguration;
+import demo.todo.config.EventProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.integration.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TodoEventChannelTest {
+
+    @Test
+    public void dropEventsInsteadOfDeliveringOnPublisherWhenQueueFull() throws Exception {
+
+        // given
+        EventProperties properties = new EventProperties();
+        properties.setQueueCapacity(1);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PublishSubscribeChannel channel = new EventConfiguration().todoEventChannel(properties, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> deliveredOn = new CopyOnWriteArrayList<>();
+        channel.subscribe(message -> {
+            deliveredOn.add(message.getPayload() + "@" + Thread.currentThread().getName());
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // when
+        channel.send(MessageBuilder.withPayload("1").build());
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        channel.send(MessageBuilder.withPayload("2").build());
+        channel.send(MessageBuilder.withPayload("3").build());
+        release.countDown();
+
+        // then
+        assertThat(meterRegistry.counter(EventConfiguration.DROPPED_METRIC).count()).isEqualTo(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deliveredOn.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(deliveredOn).allMatch(delivery -> delivery.contains("todo-events-"));
+        assertThat(deliveredOn).extracting(delivery -> delivery.substring(0, 1)).containsExactly("1", "2");
+    }
+}
@@ -0,0 +1,47 @@
+package demo.todo.fowler.unit;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import demo.todo.model.TodoItem;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TodoItemSerializerTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectMapper reflectiveObjectMapper = new ObjectMapper()
+            .addMixIn(TodoItem.class, BeanSerialized.class);
+
+    @Test
+    public void writeSameJsonAsBeanSerializer() throws Exception {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(1L, "Dummy \"1\"\n", true);
+
+        // when
+        String json = objectMapper.writeValueAsString(preparedTodo);
+
+        // then
+        assertThat(json).isEqualTo("{\"id\":1,\"title\":\"Dummy \\\"1\\\"\\n\",\"done\":true}");
+        assertThat(json).isEqualTo(reflectiveObjectMapper.writeValueAsString(preparedTodo));
+    }
+
+    @Test
+    public void writeNullsOnMissingTitleAndDone() throws Exception {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(2L, null, null);
+
+        // when
+        String json = objectMapper.writeValueAsString(preparedTodo);
+
+        // then
+        assertThat(json).isEqualTo(reflectiveObjectMapper.writeValueAsString(preparedTodo));
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+}
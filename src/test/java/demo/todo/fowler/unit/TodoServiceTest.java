@@ -1,17 +1,28 @@
 package demo.todo.fowler.unit;
 
 import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoEvent;
 import demo.todo.model.TodoItem;
+import demo.todo.service.TodoOutbox;
+import demo.todo.service.TodoPurger;
 import demo.todo.service.TodoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
+import static demo.todo.model.TodoItem.DEFAULT_TENANT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
@@ -23,6 +34,10 @@ public class TodoServiceTest {
     private TodoService todoService;
     @Mock
     private TodoRepository todoRepository;
+    @Mock
+    private TodoOutbox todoOutbox;
+    @Mock
+    private TodoPurger todoPurger;
 
     @Before
     public void setUp() {
@@ -37,26 +52,58 @@ public class TodoServiceTest {
         TodoItem preparedTodo1 = new TodoItem(1L, "Dummy 1", false);
         TodoItem preparedTodo2 = new TodoItem(2L, "Dummy 2", false);
 
-        given(todoRepository.findAll())
+        given(todoRepository.findByTenantIdOrderByIdAsc(DEFAULT_TENANT))
                 .willReturn(Arrays.asList(preparedTodo1, preparedTodo2));
 
         // when
-        List<TodoItem> todos = todoService.getAllTodos();
+        List<TodoItem> todos = todoService.getAllTodos(DEFAULT_TENANT);
 
         // then
         assertThat(todos).contains(preparedTodo1, preparedTodo2);
     }
 
+    @Test
+    public void returnPageWhenGetTodosAfter() {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(2L, "Dummy 2", false);
+
+        given(todoRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(DEFAULT_TENANT, 1L, PageRequest.of(0, 10)))
+                .willReturn(Collections.singletonList(preparedTodo));
+
+        // when
+        List<TodoItem> todos = todoService.getTodosAfter(DEFAULT_TENANT, 1L, 10);
+
+        // then
+        assertThat(todos).containsExactly(preparedTodo);
+    }
+
+    @Test
+    public void searchEscapedLowerCasePatternWhenSearchTodos() {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(1L, "Dummy_1", true);
+
+        given(todoRepository.searchByTitleAndDone(DEFAULT_TENANT, "%dummy\\_%", true, PageRequest.of(0, 10)))
+                .willReturn(Collections.singletonList(preparedTodo));
+
+        // when
+        List<TodoItem> todos = todoService.searchTodos(DEFAULT_TENANT, "Dummy_", true, 10);
+
+        // then
+        assertThat(todos).containsExactly(preparedTodo);
+    }
+
     @Test
     public void returnTodoOnGetOne() {
 
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy 1", false);
-        given(todoRepository.findById(1L))
+        given(todoRepository.findByTenantIdAndId(DEFAULT_TENANT, 1L))
                 .willReturn(Optional.of(preparedTodo));
 
         // when
-        Optional<TodoItem> result = todoService.getTodo(1L);
+        Optional<TodoItem> result = todoService.getTodo(DEFAULT_TENANT, 1L);
 
         // then
         assertThat(result).hasValue(preparedTodo);
@@ -71,40 +118,109 @@ public class TodoServiceTest {
                 .willReturn(preparedTodo);
 
         // when
-        TodoItem addedTodo = todoService.addTodo(preparedTodo);
+        TodoItem addedTodo = todoService.addTodo(DEFAULT_TENANT, preparedTodo);
 
         // then
         assertThat(addedTodo).isEqualTo(preparedTodo);
     }
 
 
+    @Test
+    public void publishAddedEventToOutboxAndStreamOnAdded() {
+
+        // given
+        QueueChannel todoEventChannel = new QueueChannel();
+        todoService = new TodoService(todoRepository, new SimpleMeterRegistry(), todoEventChannel, todoOutbox,
+                Optional.empty(), Optional.empty());
+        TodoItem preparedTodo = new TodoItem(0L, "Dummy 1", false);
+        TodoItem savedTodo = new TodoItem(1L, "Dummy 1", false);
+        given(todoRepository.save(preparedTodo))
+                .willReturn(savedTodo);
+
+        // when
+        todoService.addTodo(DEFAULT_TENANT, preparedTodo);
+
+        // then
+        Mockito.verify(todoOutbox).record(TodoEvent.of(DEFAULT_TENANT, TodoEvent.ADDED, 1L, savedTodo));
+        Message<?> message = todoEventChannel.receive(0);
+        assertThat(message).isNotNull();
+        assertThat(message.getPayload()).isEqualTo(TodoEvent.of(DEFAULT_TENANT, TodoEvent.ADDED, 1L, savedTodo));
+    }
+
     @Test
     public void returnTodoOnUpdated() {
 
         // given
         TodoItem preparedTodo = new TodoItem(1L, "Dummy 1 updated", false);
-        given(todoRepository.findById(1L))
+        given(todoRepository.updateById(DEFAULT_TENANT, 1L, "Dummy 1 updated", false))
+                .willReturn(1);
+        given(todoRepository.findByTenantIdAndId(DEFAULT_TENANT, 1L))
                 .willReturn(Optional.of(preparedTodo));
-        given(todoRepository.save(preparedTodo))
-                .willReturn(preparedTodo);
 
         // when
-        Optional<TodoItem> result = todoService.updateTodo(1L, preparedTodo);
+        Optional<TodoItem> result = todoService.updateTodo(DEFAULT_TENANT, 1L, preparedTodo);
 
         // then
+        Mockito.verify(todoRepository, never()).findById(1L);
         assertThat(result).hasValue(preparedTodo);
     }
 
+    @Test
+    public void returnEmptyOnUpdateNotExisting() {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(1L, "Dummy 1 updated", false);
+        given(todoRepository.updateById(DEFAULT_TENANT, 1L, "Dummy 1 updated", false))
+                .willReturn(0);
+
+        // when
+        Optional<TodoItem> result = todoService.updateTodo(DEFAULT_TENANT, 1L, preparedTodo);
+
+        // then
+        assertThat(result).isNotPresent();
+    }
+
+
+    @Test(expected = OptimisticLockingFailureException.class)
+    public void failOnUpdateStaleVersion() {
+
+        // given
+        TodoItem preparedTodo = new TodoItem(1L, "Dummy 1 updated", false);
+        given(todoRepository.updateByIdAndVersion(DEFAULT_TENANT, 1L, 3L, "Dummy 1 updated", false))
+                .willReturn(0);
+        given(todoRepository.existsByTenantIdAndId(DEFAULT_TENANT, 1L))
+                .willReturn(true);
+
+        // when
+        todoService.updateTodo(DEFAULT_TENANT, 1L, preparedTodo, 3L);
+    }
+
+    @Test
+    public void returnEmptyOnUpdateManyWithNotExisting() {
+
+        // given
+        TodoItem preparedTodo1 = new TodoItem(1L, "Dummy 1 updated", false);
+        TodoItem preparedTodo2 = new TodoItem(2L, "Dummy 2 updated", false);
+        given(todoRepository.findByTenantIdAndIdIn(DEFAULT_TENANT, new HashSet<>(Arrays.asList(1L, 2L))))
+                .willReturn(Collections.singletonList(preparedTodo1));
+
+        // when
+        Optional<List<TodoItem>> result = todoService.updateTodos(DEFAULT_TENANT, Arrays.asList(preparedTodo1, preparedTodo2));
+
+        // then
+        Mockito.verify(todoRepository, never()).saveAll(Mockito.anyIterable());
+        assertThat(result).isNotPresent();
+    }
 
     @Test
     public void returnEmptyOnGetNotExisting() {
 
         // given
-        given(todoRepository.findById(1L))
+        given(todoRepository.findByTenantIdAndId(DEFAULT_TENANT, 1L))
                 .willReturn(Optional.empty());
 
         // when
-        Optional<TodoItem> result = todoService.getTodo(1L);
+        Optional<TodoItem> result = todoService.getTodo(DEFAULT_TENANT, 1L);
 
         // then
         assertThat(result).isNotPresent();
@@ -115,15 +231,15 @@ public class TodoServiceTest {
     public void returnTrueOnDelete() {
 
         // given
-        TodoItem preparedTodo = new TodoItem(1L, "Dummy 1", false);
-        given(todoRepository.findById(1L))
-                .willReturn(Optional.of(preparedTodo));
+        given(todoRepository.removeById(DEFAULT_TENANT, 1L))
+                .willReturn(1);
 
         // when
-        Boolean result = todoService.deleteTodo(1L);
+        Boolean result = todoService.deleteTodo(DEFAULT_TENANT, 1L);
 
         // then
-        Mockito.verify(todoRepository, times(1)).deleteById(1L);
+        Mockito.verify(todoRepository, times(1)).removeById(DEFAULT_TENANT, 1L);
+        Mockito.verify(todoRepository, never()).findById(1L);
         assertThat(result).isTrue();
     }
 
@@ -131,14 +247,50 @@ public class TodoServiceTest {
     public void returnFalseOnDeleteNotExisting() {
 
         // given
-        given(todoRepository.findById(1L))
-                .willReturn(Optional.empty());
+        given(todoRepository.removeById(DEFAULT_TENANT, 1L))
+                .willReturn(0);
 
         // when
-        Boolean result = todoService.deleteTodo(1L);
+        Boolean result = todoService.deleteTodo(DEFAULT_TENANT, 1L);
 
         // then
-        Mockito.verify(todoRepository, never()).deleteById(1L);
         assertThat(result).isFalse();
     }
+
+    @Test
+    public void publishDeletedEventOnlyForFoundOnDeleteMany() {
+
+        // given
+        todoService = new TodoService(todoRepository, new SimpleMeterRegistry(), new QueueChannel(), todoOutbox,
+                Optional.empty(), Optional.empty());
+        given(todoRepository.findForUpdateByTenantIdAndIdIn(DEFAULT_TENANT, Arrays.asList(1L, 2L)))
+                .willReturn(Collections.singletonList(new TodoItem(1L, "Dummy 1", false)));
+        given(todoRepository.deleteByIdIn(DEFAULT_TENANT, Collections.singletonList(1L)))
+                .willReturn(1);
+
+        // when
+        int result = todoService.deleteTodos(DEFAULT_TENANT, Arrays.asList(1L, 2L));
+
+        // then
+        Mockito.verify(todoOutbox).record(TodoEvent.of(DEFAULT_TENANT, TodoEvent.DELETED, 1L, null));
+        Mockito.verify(todoOutbox, never()).record(TodoEvent.of(DEFAULT_TENANT, TodoEvent.DELETED, 2L, null));
+        assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    public void softDeleteOnDeleteWithPurger() {
+
+        // given
+        todoService = new TodoService(todoRepository, new SimpleMeterRegistry(), new QueueChannel(), todoOutbox,
+                Optional.empty(), Optional.of(todoPurger));
+        given(todoRepository.softDeleteById(DEFAULT_TENANT, 1L))
+                .willReturn(1);
+
+        // when
+        Boolean result = todoService.deleteTodo(DEFAULT_TENANT, 1L);
+
+        // then
+        Mockito.verify(todoRepository, never()).removeById(DEFAULT_TENANT, 1L);
+        assertThat(result).isTrue();
+    }
 }
@@ -0,0 +1,118 @@
+package demo.todo.fowler.unit;
+
+import demo.todo.config.WriteBehindProperties;
+import demo.todo.data.TodoRepository;
+import demo.todo.model.TodoItem;
+import demo.todo.service.TodoOutbox;
+import demo.todo.service.TodoWriteBehindBuffer;
+import demo.todo.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static demo.todo.model.TodoItem.DEFAULT_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class TodoWriteBehindBufferTest {
+
+    private TodoWriteBehindBuffer writeBehindBuffer;
+    @Mock
+    private TodoRepository todoRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private CacheManager cacheManager;
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() throws Exception {
+        initMocks(this);
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setCapacity(1);
+        properties.setOfferTimeout(Duration.ZERO);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        properties.setRetryAttempts(2);
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        cacheManager = new ConcurrentMapCacheManager(TodoService.TODO_CACHE);
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehindBuffer = new TodoWriteBehindBuffer(todoRepository, Mockito.mock(TodoOutbox.class),
+                transactionTemplate, cacheManager, meterRegistry, properties);
+    }
+
+    @Test
+    public void returnAllocatedIdOnAdd() throws Exception {
+
+        // given
+        given(todoRepository.nextId()).willReturn(51L);
+        writeBehindBuffer.start();
+
+        // when
+        TodoItem result = writeBehindBuffer.add(new TodoItem(0L, "Dummy 1", false));
+        writeBehindBuffer.stop();
+
+        // then
+        assertThat(result.getId()).isEqualTo(51L);
+        assertThat(result.getTitle()).isEqualTo("Dummy 1");
+    }
+
+    @Test(expected = TaskRejectedException.class)
+    public void failOnAddWhenStopped() {
+
+        // given
+        given(todoRepository.nextId()).willReturn(1L);
+
+        // when
+        writeBehindBuffer.add(new TodoItem(0L, "Dummy 1", false));
+    }
+
+    @Test
+    public void retryFailedFlushBeforeDropping() throws Exception {
+
+        // given
+        given(todoRepository.nextId()).willReturn(1L);
+        doThrow(new IllegalStateException("connection refused")).doNothing()
+                .when(transactionTemplate).executeWithoutResult(any());
+        writeBehindBuffer.start();
+
+        // when
+        writeBehindBuffer.add(new TodoItem(0L, "Dummy 1", false));
+        writeBehindBuffer.stop();
+
+        // then
+        assertThat(meterRegistry.counter(TodoWriteBehindBuffer.RETRIED_METRIC).count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(TodoWriteBehindBuffer.FLUSHED_METRIC).count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(TodoWriteBehindBuffer.DROPPED_METRIC).count()).isZero();
+    }
+
+    @Test
+    public void dropAndEvictWhenRetriesRunOut() throws Exception {
+
+        // given
+        given(todoRepository.nextId()).willReturn(1L);
+        doThrow(new IllegalStateException("connection refused"))
+                .when(transactionTemplate).executeWithoutResult(any());
+        cacheManager.getCache(TodoService.TODO_CACHE).put(DEFAULT_TENANT + ":1", new TodoItem(1L, "Dummy 1", false));
+        writeBehindBuffer.start();
+
+        // when
+        writeBehindBuffer.add(new TodoItem(0L, "Dummy 1", false));
+        writeBehindBuffer.stop();
+
+        // then
+        assertThat(meterRegistry.counter(TodoWriteBehindBuffer.RETRIED_METRIC).count()).isEqualTo(2);
+        assertThat(meterRegistry.counter(TodoWriteBehindBuffer.DROPPED_METRIC).count()).isEqualTo(1);
+        assertThat(cacheManager.getCache(TodoService.TODO_CACHE).get(DEFAULT_TENANT + ":1")).isNull();
+    }
+}